@@ -0,0 +1,61 @@
+package br.com.library.benchmark;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.api.resources.BookController;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookController} chamado diretamente (consulta + mapeamento para DTO) e a serialização JSON
+ * da página resultante, isolada do restante.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookControllerBenchmark {
+
+	@Param({"20", "500"})
+	public int pageSize;
+
+	private BookController controller;
+	private ObjectMapper objectMapper;
+	private PageRequest pageRequest;
+	private Page<BookDTO> page;
+
+	@Setup
+	public void setUp(CatalogState catalog) {
+		controller = catalog.bean(BookController.class);
+		objectMapper = catalog.bean(ObjectMapper.class);
+		pageRequest = PageRequest.of(0, pageSize);
+		page = controller.find(new BookDTO(), pageRequest, null).getBody();
+	}
+
+	@Benchmark
+	public ResponseEntity<?> get(CatalogState catalog) {
+		return controller.get(catalog.randomId(), null, null);
+	}
+
+	@Benchmark
+	public ResponseEntity<Page<BookDTO>> find() {
+		return controller.find(new BookDTO(), pageRequest, null);
+	}
+
+	@Benchmark
+	public byte[] serializePage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(page);
+	}
+
+}
@@ -0,0 +1,67 @@
+package br.com.library.benchmark;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.model.entity.Book;
+import br.com.library.services.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos quentes de {@link BookService} contra o H2 populado por {@link CatalogState}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookServiceBenchmark {
+
+	private BookService bookService;
+	private Pageable pageRequest;
+
+	@Setup
+	public void setUp(CatalogState catalog) {
+		bookService = catalog.bean(BookService.class);
+		pageRequest = PageRequest.of(0, 20);
+	}
+
+	@Benchmark
+	public Book save(CatalogState catalog) {
+		return bookService.save(catalog.newBook());
+	}
+
+	@Benchmark
+	public Optional<Book> getById(CatalogState catalog) {
+		return bookService.getById(catalog.randomId());
+	}
+
+	@Benchmark
+	public Page<BookDTO> findDtosWithoutFilter() {
+		return bookService.findDtos(new Book(), pageRequest);
+	}
+
+	@Benchmark
+	public Page<BookDTO> findDtosByTitle() {
+		return bookService.findDtos(Book.builder().title("livro 12").build(), pageRequest);
+	}
+
+	@Benchmark
+	public Page<BookDTO> findDtosByTitleAndAuthor() {
+		return bookService.findDtos(Book.builder().title("livro 12").author("machado").build(), pageRequest);
+	}
+
+	@Benchmark
+	public Page<BookDTO> findDtosByIsbn() {
+		return bookService.findDtos(Book.builder().isbn("978-500").build(), pageRequest);
+	}
+
+}
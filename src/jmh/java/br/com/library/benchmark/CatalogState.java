@@ -0,0 +1,97 @@
+package br.com.library.benchmark;
+
+import br.com.library.LibraryApiApplication;
+import br.com.library.model.entity.Book;
+import br.com.library.services.BookService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contexto Spring completo sobre um H2 em memória exclusivo, populado com {@code catalogSize} livros.
+ * O tamanho do acervo pode ser alterado na linha de comando: {@code -p catalogSize=1000000}.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+	private static final int SEED_CHUNK = 1000;
+	private static final String[] AUTHORS = {"Machado de Assis", "Clarice Lispector", "Jorge Amado",
+			"Cecília Meireles", "Graciliano Ramos", "Carlos Drummond", "Rachel de Queiroz", "Guimarães Rosa"};
+
+	@Param({"1000", "100000"})
+	public int catalogSize;
+
+	public ConfigurableApplicationContext context;
+
+	private final AtomicLong isbnSequence = new AtomicLong();
+	private long firstId;
+	private long lastId;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(LibraryApiApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+						"spring.jpa.show-sql=false",
+						"logging.level.root=WARN",
+						"spring.main.banner-mode=off")
+				.run();
+		seed(context.getBean(BookService.class));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	public <T> T bean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	/**
+	 * Um livro ainda não cadastrado, com isbn único.
+	 */
+	public Book newBook() {
+		long sequence = isbnSequence.incrementAndGet();
+		return Book.builder()
+				.isbn("978-" + sequence)
+				.title("Livro " + sequence)
+				.author(AUTHORS[(int) (sequence % AUTHORS.length)])
+				.build();
+	}
+
+	/**
+	 * Id de um dos livros carregados na inicialização, escolhido ao acaso.
+	 */
+	public long randomId() {
+		return ThreadLocalRandom.current().nextLong(firstId, lastId + 1);
+	}
+
+	private void seed(BookService bookService) {
+		List<Book> chunk = new ArrayList<>(SEED_CHUNK);
+		firstId = Long.MAX_VALUE;
+		for (int i = 0; i < catalogSize; i++) {
+			chunk.add(newBook());
+			if (chunk.size() == SEED_CHUNK || i == catalogSize - 1) {
+				for (Book book : bookService.saveAll(chunk)) {
+					firstId = Math.min(firstId, book.getId());
+					lastId = Math.max(lastId, book.getId());
+				}
+				chunk.clear();
+			}
+		}
+	}
+}
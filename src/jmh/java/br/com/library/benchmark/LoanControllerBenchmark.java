@@ -0,0 +1,50 @@
+package br.com.library.benchmark;
+
+import br.com.library.api.dtos.LoanDTO;
+import br.com.library.api.resources.LoanController;
+import br.com.library.model.entity.Book;
+import br.com.library.services.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LoanController#create} completo: busca do livro pelo isbn, verificação de disponibilidade e insert.
+ * Cada invocação empresta um livro recém-cadastrado, fora da medição, para não esbarrar em livros já emprestados.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoanControllerBenchmark {
+
+	private CatalogState catalog;
+	private LoanController controller;
+	private BookService bookService;
+	private LoanDTO dto;
+
+	@Setup(Level.Trial)
+	public void setUp(CatalogState catalog) {
+		this.catalog = catalog;
+		controller = catalog.bean(LoanController.class);
+		bookService = catalog.bean(BookService.class);
+	}
+
+	@Setup(Level.Invocation)
+	public void newBook() {
+		Book book = bookService.save(catalog.newBook());
+		dto = LoanDTO.builder().isbn(book.getIsbn()).customer("Fulano").build();
+	}
+
+	@Benchmark
+	public Long create() {
+		return controller.create(dto);
+	}
+
+}
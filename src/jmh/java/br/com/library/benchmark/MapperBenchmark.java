@@ -0,0 +1,72 @@
+package br.com.library.benchmark;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.api.mappers.BookMapper;
+import br.com.library.api.mappers.DirectBookMapper;
+import br.com.library.api.mappers.ModelMapperBookMapper;
+import br.com.library.model.entity.Book;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o mapeamento escrito à mão com o caminho reflexivo do ModelMapper,
+ * para um livro e para uma página inteira de resultados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+	@Param({"direct", "modelmapper"})
+	public String mapper;
+
+	@Param({"100"})
+	public int pageSize;
+
+	private BookMapper bookMapper;
+	private Book book;
+	private BookDTO dto;
+	private List<Book> page;
+
+	@Setup
+	public void setUp() {
+		bookMapper = "direct".equals(mapper) ? new DirectBookMapper() : new ModelMapperBookMapper(new ModelMapper());
+		book = Book.builder().id(1L).title("As Aventuras").author("Eduardo").isbn("147852").build();
+		dto = BookDTO.builder().title("As Aventuras").author("Eduardo").isbn("147852").build();
+		page = new ArrayList<>(pageSize);
+		for (long i = 0; i < pageSize; i++) {
+			page.add(Book.builder().id(i).title("Titulo " + i).author("Autor " + i).isbn(String.valueOf(i)).build());
+		}
+	}
+
+	@Benchmark
+	public BookDTO toDto() {
+		return bookMapper.toDto(book);
+	}
+
+	@Benchmark
+	public Book toEntity() {
+		return bookMapper.toEntity(dto);
+	}
+
+	@Benchmark
+	public List<BookDTO> toDtoPage() {
+		List<BookDTO> list = new ArrayList<>(page.size());
+		for (Book entity : page) {
+			list.add(bookMapper.toDto(entity));
+		}
+		return list;
+	}
+
+}
@@ -0,0 +1,113 @@
+package br.com.library.benchmark;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.api.dtos.PageDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificação e decodificação de uma página de livros em JSON, CBOR e Smile, todas no envelope {@link PageDTO}.
+ * {@code encodePage} serializa o {@link Page} do Spring Data, que é o corpo da busca em JSON e não pode ser lido de
+ * volta pelo Jackson. O tamanho em bytes de cada corpo sai como contador secundário ({@link PayloadSize}) nos
+ * resultados de {@code encode} e {@code encodePage}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+	private static final String[] AUTHORS = {"Machado de Assis", "Clarice Lispector", "Jorge Amado", "Cecília Meireles"};
+
+	@Param({"json", "cbor", "smile"})
+	public String format;
+
+	@Param({"20", "500"})
+	public int pageSize;
+
+	private ObjectMapper objectMapper;
+	private ObjectReader pageReader;
+	private Page<BookDTO> page;
+	private PageDTO<BookDTO> envelope;
+	private byte[] encoded;
+
+	@Setup
+	public void setUp() throws IOException {
+		objectMapper = new ObjectMapper(factory(format));
+		pageReader = objectMapper.readerFor(new TypeReference<PageDTO<BookDTO>>() {});
+		List<BookDTO> content = new ArrayList<>(pageSize);
+		for (long i = 0; i < pageSize; i++) {
+			content.add(BookDTO.builder()
+					.id(1000 + i)
+					.title("Livro " + i)
+					.author(AUTHORS[(int) (i % AUTHORS.length)])
+					.isbn("978-" + i)
+					.version(0L)
+					.build());
+		}
+		page = new PageImpl<>(content, PageRequest.of(0, pageSize), 100_000);
+		envelope = PageDTO.of(page);
+		encoded = objectMapper.writeValueAsBytes(envelope);
+	}
+
+	@Benchmark
+	public byte[] encode(PayloadSize size) throws IOException {
+		byte[] bytes = objectMapper.writeValueAsBytes(envelope);
+		size.bytes = bytes.length;
+		return bytes;
+	}
+
+	@Benchmark
+	public PageDTO<BookDTO> decode() throws IOException {
+		return pageReader.readValue(encoded);
+	}
+
+	@Benchmark
+	public byte[] encodePage(PayloadSize size) throws IOException {
+		byte[] bytes = objectMapper.writeValueAsBytes(page);
+		size.bytes = bytes.length;
+		return bytes;
+	}
+
+	/**
+	 * Tamanho do último corpo codificado. Como o valor é atribuído e não somado, o contador do tipo
+	 * {@code EVENTS} mostra o tamanho do corpo, e não um total da iteração.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class PayloadSize {
+
+		public long bytes;
+	}
+
+	private static JsonFactory factory(String format) {
+		switch (format) {
+			case "cbor":
+				return new CBORFactory();
+			case "smile":
+				return new SmileFactory();
+			default:
+				return new JsonFactory();
+		}
+	}
+}
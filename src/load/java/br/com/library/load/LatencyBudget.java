@@ -0,0 +1,30 @@
+package br.com.library.load;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orçamentos de latência, em milissegundos, lidos das propriedades de sistema {@code load.budget.p99} e
+ * {@code load.budget.p999}. Um cenário pode ter orçamento próprio: {@code load.budget.write-heavy.p99=400}.
+ */
+class LatencyBudget {
+
+	private final long p99Millis;
+	private final long p999Millis;
+
+	LatencyBudget(long p99Millis, long p999Millis) {
+		this.p99Millis = p99Millis;
+		this.p999Millis = p999Millis;
+	}
+
+	static LatencyBudget fromSystemProperties() {
+		return new LatencyBudget(Long.getLong("load.budget.p99", 250), Long.getLong("load.budget.p999", 1000));
+	}
+
+	long p99Micros(String scenario) {
+		return TimeUnit.MILLISECONDS.toMicros(Long.getLong("load.budget." + scenario + ".p99", p99Millis));
+	}
+
+	long p999Micros(String scenario) {
+		return TimeUnit.MILLISECONDS.toMicros(Long.getLong("load.budget." + scenario + ".p999", p999Millis));
+	}
+}
@@ -0,0 +1,131 @@
+package br.com.library.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências por cenário e operação, em microssegundos, registradas em histogramas HdrHistogram.
+ * Gera o relatório em texto (resumo + distribuição completa) e confere os orçamentos de latência.
+ */
+class LatencyReport {
+
+	private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+	private final Map<String, Scenario> scenarios = new LinkedHashMap<>();
+
+	synchronized Scenario scenario(String name) {
+		return scenarios.computeIfAbsent(name, Scenario::new);
+	}
+
+	/**
+	 * Operações do cenário cujo p99/p999 excedeu o orçamento ou que tiveram respostas com erro; vazio quando tudo passou.
+	 */
+	synchronized List<String> violations(String name, LatencyBudget budget) {
+		List<String> violations = new ArrayList<>();
+		Scenario scenario = scenarios.get(name);
+		if (scenario == null) {
+			return violations;
+		}
+		long p99 = budget.p99Micros(name);
+		long p999 = budget.p999Micros(name);
+		for (Operation operation : scenario.operations.values()) {
+			String label = name + "/" + operation.name;
+			if (operation.errors.sum() > 0) {
+				violations.add(label + ": " + operation.errors.sum() + " respostas com erro");
+			}
+			if (operation.histogram.getValueAtPercentile(99.0) > p99) {
+				violations.add(label + ": p99 " + millis(operation.histogram.getValueAtPercentile(99.0)) + " ms > " + millis(p99) + " ms");
+			}
+			if (operation.histogram.getValueAtPercentile(99.9) > p999) {
+				violations.add(label + ": p999 " + millis(operation.histogram.getValueAtPercentile(99.9)) + " ms > " + millis(p999) + " ms");
+			}
+		}
+		return violations;
+	}
+
+	synchronized void write(Path file) throws IOException {
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+			out.printf("%-28s %9s %7s %10s %9s %9s %9s %9s%n",
+					"cenário/operação", "requests", "erros", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+			for (Scenario scenario : scenarios.values()) {
+				for (Operation operation : scenario.operations.values()) {
+					Histogram histogram = operation.histogram;
+					out.printf("%-28s %9d %7d %10.1f %9s %9s %9s %9s%n",
+							scenario.name + "/" + operation.name,
+							histogram.getTotalCount(),
+							operation.errors.sum(),
+							histogram.getTotalCount() / scenario.elapsedSeconds(),
+							millis(histogram.getValueAtPercentile(50.0)),
+							millis(histogram.getValueAtPercentile(99.0)),
+							millis(histogram.getValueAtPercentile(99.9)),
+							millis(histogram.getMaxValue()));
+				}
+			}
+			for (Scenario scenario : scenarios.values()) {
+				for (Operation operation : scenario.operations.values()) {
+					out.println();
+					out.println("# " + scenario.name + "/" + operation.name + " (ms)");
+					operation.histogram.outputPercentileDistribution(out, 1000.0);
+				}
+			}
+		}
+	}
+
+	private static String millis(long micros) {
+		return String.format("%.2f", micros / 1000.0);
+	}
+
+	static class Scenario {
+
+		private final String name;
+		private final Map<String, Operation> operations = new LinkedHashMap<>();
+		private volatile long elapsedNanos;
+
+		private Scenario(String name) {
+			this.name = name;
+		}
+
+		synchronized Operation operation(String name) {
+			return operations.computeIfAbsent(name, Operation::new);
+		}
+
+		void elapsed(long nanos) {
+			elapsedNanos = nanos;
+		}
+
+		private double elapsedSeconds() {
+			return Math.max(elapsedNanos, 1) / 1e9;
+		}
+	}
+
+	static class Operation {
+
+		private final String name;
+		private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+		private final LongAdder errors = new LongAdder();
+
+		private Operation(String name) {
+			this.name = name;
+		}
+
+		void record(long startNanos, boolean success) {
+			long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+			histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+			if (!success) {
+				errors.increment();
+			}
+		}
+	}
+}
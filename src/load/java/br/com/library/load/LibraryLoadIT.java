@@ -0,0 +1,289 @@
+package br.com.library.load;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.api.dtos.LoanDTO;
+import br.com.library.model.entity.Book;
+import br.com.library.services.BookService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de carga ponta a ponta: sobe a aplicação numa porta aleatória sobre um H2 em memória, popula o acervo e
+ * exercita a API HTTP com três perfis de carga, em sequência. Cada cenário tem aquecimento (não medido) seguido da
+ * medição; latências e vazão vão para {@code load.report} e o cenário falha se exceder o orçamento de latência
+ * ({@link LatencyBudget}) ou se alguma resposta vier com erro.
+ *
+ * <p>Usa a configuração de produção (sem o perfil {@code test}), inclusive o cache de segundo nível.
+ * Roda apenas no perfil {@code load-test}: {@code mvn -Pload-test verify -Dload.duration=PT60S}.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+		"logging.level.root=WARN"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class LibraryLoadIT {
+
+	private static final String BOOK_API = "/api/books";
+	private static final String LOAN_API = "/api/loans";
+	private static final String LOAN_REJECTED = "Livro já emprestado.";
+	private static final int SEED_CHUNK = 1000;
+	private static final String[] AUTHORS = {"Machado de Assis", "Clarice Lispector", "Jorge Amado",
+			"Cecília Meireles", "Graciliano Ramos", "Carlos Drummond", "Rachel de Queiroz", "Guimarães Rosa"};
+	private static final String[] SEARCH_TERMS = {"assis", "clarice", "amado", "meireles", "ramos", "drummond", "queiroz", "rosa"};
+
+	private final int catalogSize = Integer.getInteger("load.catalog-size", 20000);
+	private final int threads = Integer.getInteger("load.threads", 16);
+	private final int burstSize = Integer.getInteger("load.burst-size", 64);
+	private final Duration burstPause = Duration.parse(System.getProperty("load.burst-pause", "PT0.05S"));
+	private final Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+	private final Duration duration = Duration.parse(System.getProperty("load.duration", "PT20S"));
+	private final LatencyBudget budget = LatencyBudget.fromSystemProperties();
+	private final LatencyReport report = new LatencyReport();
+
+	private final AtomicLong isbnSequence = new AtomicLong();
+	private final AtomicLong loanCursor = new AtomicLong();
+	private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+	private final List<Book> catalog = new ArrayList<>();
+
+	@Autowired
+	TestRestTemplate rest;
+
+	@Autowired
+	BookService bookService;
+
+	@BeforeAll
+	public void seed() {
+		List<Book> chunk = new ArrayList<>(SEED_CHUNK);
+		for (int i = 0; i < catalogSize; i++) {
+			BookDTO dto = newBook();
+			chunk.add(Book.builder().isbn(dto.getIsbn()).title(dto.getTitle()).author(dto.getAuthor()).build());
+			if (chunk.size() == SEED_CHUNK || i == catalogSize - 1) {
+				catalog.addAll(bookService.saveAll(chunk));
+				chunk.clear();
+			}
+		}
+	}
+
+	@AfterAll
+	public void writeReport() throws Exception {
+		report.write(Paths.get(System.getProperty("load.report", "target/load-test/report.txt")));
+	}
+
+	@Test
+	@Order(1)
+	@DisplayName("Carga de leitura: filtros, busca textual e consulta por id, com poucas escritas.")
+	public void searchHeavy() throws Exception {
+		run("search-heavy", threads, false,
+				request("find-title", 25, () -> rest.getForEntity(BOOK_API + "?title={title}&size=20", byte[].class,
+						"livro " + ThreadLocalRandom.current().nextInt(1, 1000))),
+				request("find-author", 15, () -> rest.getForEntity(BOOK_API + "?author={author}&size=20", byte[].class,
+						randomAuthor())),
+				request("search", 25, () -> rest.getForEntity(BOOK_API + "/search?q={q}&size=20", byte[].class,
+						SEARCH_TERMS[ThreadLocalRandom.current().nextInt(SEARCH_TERMS.length)])),
+				request("get", 30, () -> rest.getForEntity(BOOK_API + "/{id}", byte[].class, randomBook().getId())),
+				request("create", 5, this::createBook));
+
+		assertThat(report.violations("search-heavy", budget)).isEmpty();
+	}
+
+	@Test
+	@Order(2)
+	@DisplayName("Carga de escrita: cadastro, alteração e exclusão de livros.")
+	public void writeHeavy() throws Exception {
+		run("write-heavy", threads, false,
+				request("create", 45, this::createBook),
+				request("update", 30, () -> rest.exchange(BOOK_API + "/{id}", HttpMethod.PUT,
+						new HttpEntity<>(BookDTO.builder().title("Livro revisado " + isbnSequence.get()).author(randomAuthor()).build()),
+						byte[].class, randomBook().getId())),
+				request("delete", 10, this::deleteCreatedBook),
+				request("get", 15, () -> rest.getForEntity(BOOK_API + "/{id}", byte[].class, randomBook().getId())));
+
+		assertThat(report.violations("write-heavy", budget)).isEmpty();
+	}
+
+	@Test
+	@Order(3)
+	@DisplayName("Rajadas de empréstimos: todas as threads disparam juntas a cada rodada.")
+	public void loanBursts() throws Exception {
+		run("loan-burst", burstSize, true,
+				request("loan", 1, this::loanNextBook));
+
+		assertThat(report.violations("loan-burst", budget)).isEmpty();
+	}
+
+	private ResponseEntity<?> createBook() {
+		ResponseEntity<BookDTO> response = rest.postForEntity(BOOK_API, newBook(), BookDTO.class);
+		if (response.getStatusCode() == HttpStatus.CREATED) {
+			created.add(response.getBody().getId());
+		}
+		return response;
+	}
+
+	private ResponseEntity<?> deleteCreatedBook() {
+		Long id = created.poll();
+		if (id == null) {
+			return createBook();
+		}
+		return rest.exchange(BOOK_API + "/{id}", HttpMethod.DELETE, null, Void.class, id);
+	}
+
+	/**
+	 * Empresta os livros do acervo em ordem; quando todos já foram emprestados, os pedidos seguintes são recusados
+	 * com 400 ("Livro já emprestado."), que conta como resposta válida. O corpo é lido como texto, já que o 400 traz
+	 * o {@code ApiErrors} e não o id do empréstimo.
+	 */
+	private ResponseEntity<?> loanNextBook() {
+		long position = loanCursor.getAndIncrement();
+		Book book = catalog.get((int) (position % catalog.size()));
+		LoanDTO dto = LoanDTO.builder().isbn(book.getIsbn()).customer("Cliente " + book.getId()).build();
+		ResponseEntity<String> response = rest.postForEntity(LOAN_API, dto, String.class);
+		if (position >= catalog.size() && response.getStatusCode() == HttpStatus.BAD_REQUEST
+				&& response.getBody() != null && response.getBody().contains(LOAN_REJECTED)) {
+			return ResponseEntity.ok().build();
+		}
+		return response;
+	}
+
+	private BookDTO newBook() {
+		long sequence = isbnSequence.incrementAndGet();
+		return BookDTO.builder()
+				.isbn("978-" + sequence)
+				.title("Livro " + sequence)
+				.author(AUTHORS[(int) (sequence % AUTHORS.length)])
+				.build();
+	}
+
+	private Book randomBook() {
+		return catalog.get(ThreadLocalRandom.current().nextInt(catalog.size()));
+	}
+
+	private String randomAuthor() {
+		return AUTHORS[ThreadLocalRandom.current().nextInt(AUTHORS.length)].split(" ")[0];
+	}
+
+	private void run(String name, int threads, boolean bursts, WeightedRequest... mix) throws Exception {
+		phase(threads, bursts, warmup, Arrays.asList(mix), null);
+		LatencyReport.Scenario scenario = report.scenario(name);
+		scenario.elapsed(phase(threads, bursts, duration, Arrays.asList(mix), scenario));
+	}
+
+	/**
+	 * Executa a mistura de requisições com {@code threads} clientes até o fim do período, cada um sorteando a próxima
+	 * requisição pelo peso. Em modo rajada, os clientes esperam uns pelos outros antes de cada requisição e fazem uma
+	 * pausa depois dela, de modo que as requisições chegam juntas ao servidor.
+	 *
+	 * @return duração efetiva do período, em nanossegundos
+	 */
+	private long phase(int threads, boolean bursts, Duration period, List<WeightedRequest> mix,
+					   LatencyReport.Scenario scenario) throws Exception {
+		int totalWeight = mix.stream().mapToInt(request -> request.weight).sum();
+		Phaser phaser = new Phaser(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		long start = System.nanoTime();
+		long deadline = start + period.toNanos();
+		try {
+			List<Future<?>> clients = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				clients.add(executor.submit(() -> {
+					try {
+						while (System.nanoTime() < deadline) {
+							if (bursts) {
+								phaser.arriveAndAwaitAdvance();
+							}
+							WeightedRequest request = pick(mix, totalWeight);
+							long startNanos = System.nanoTime();
+							boolean success;
+							try {
+								success = request.call.execute().getStatusCode().is2xxSuccessful();
+							} catch (RuntimeException e) {
+								success = false;
+							}
+							if (scenario != null) {
+								scenario.operation(request.name).record(startNanos, success);
+							}
+							if (bursts) {
+								TimeUnit.NANOSECONDS.sleep(burstPause.toNanos());
+							}
+						}
+					} finally {
+						if (bursts) {
+							phaser.arriveAndDeregister();
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> client : clients) {
+				client.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static WeightedRequest pick(List<WeightedRequest> mix, int totalWeight) {
+		int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (WeightedRequest request : mix) {
+			ticket -= request.weight;
+			if (ticket < 0) {
+				return request;
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private static WeightedRequest request(String name, int weight, Call call) {
+		return new WeightedRequest(name, weight, call);
+	}
+
+	private interface Call {
+		ResponseEntity<?> execute();
+	}
+
+	private static class WeightedRequest {
+
+		private final String name;
+		private final int weight;
+		private final Call call;
+
+		private WeightedRequest(String name, int weight, Call call) {
+			this.name = name;
+			this.weight = weight;
+			this.call = call;
+		}
+	}
+}
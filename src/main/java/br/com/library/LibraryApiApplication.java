@@ -1,9 +1,22 @@
 package br.com.library;
 
+import br.com.library.api.mappers.BookMapper;
+import br.com.library.api.mappers.DirectBookMapper;
+import br.com.library.api.mappers.DirectLoanMapper;
+import br.com.library.api.mappers.LoanMapper;
+import br.com.library.api.mappers.ModelMapperBookMapper;
+import br.com.library.api.mappers.ModelMapperLoanMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 @SpringBootApplication
 public class LibraryApiApplication {
@@ -13,6 +26,46 @@ public class LibraryApiApplication {
 		return new ModelMapper();
 	}
 
+	@Bean
+	@ConditionalOnProperty(name = "library.mapper", havingValue = "direct", matchIfMissing = true)
+	public BookMapper bookMapper() {
+		return new DirectBookMapper();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "library.mapper", havingValue = "direct", matchIfMissing = true)
+	public LoanMapper loanMapper() {
+		return new DirectLoanMapper();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "library.mapper", havingValue = "modelmapper")
+	public BookMapper modelMapperBookMapper(ModelMapper modelMapper) {
+		return new ModelMapperBookMapper(modelMapper);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "library.mapper", havingValue = "modelmapper")
+	public LoanMapper modelMapperLoanMapper(ModelMapper modelMapper) {
+		return new ModelMapperLoanMapper(modelMapper);
+	}
+
+	/**
+	 * CBOR e Smile com a mesma configuração do ObjectMapper JSON, negociados pelo Accept e pelo Content-Type.
+	 * Registrados depois do conversor JSON, que continua sendo o padrão quando o cliente aceita qualquer tipo.
+	 */
+	@Bean
+	@ConditionalOnWebApplication
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+	@Bean
+	@ConditionalOnWebApplication
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+
 	public static void main(String[] args) {
 		SpringApplication.run(LibraryApiApplication.class, args);
 	}
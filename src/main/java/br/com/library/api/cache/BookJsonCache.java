@@ -0,0 +1,148 @@
+package br.com.library.api.cache;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.model.entity.Book;
+import br.com.library.services.events.BookChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Corpo JSON já codificado (UTF-8) de cada livro, para que {@code GET /api/books/{id}} responda sem mapear a entidade
+ * nem serializar o DTO. Cada entrada guarda a versão do livro e só é usada para essa versão; alterações e exclusões
+ * publicadas em {@link BookChangedEvent} removem a entrada.
+ *
+ * <p>O tamanho é limitado em bytes ({@code library.cache.book-json.maximum-size}), com eviction W-TinyLFU do
+ * Caffeine. Com {@code gzip} habilitado, corpos a partir de {@code gzip-min-size} também guardam a versão
+ * comprimida, quando ela é menor. As estatísticas são publicadas com a tag {@code cache=book-json}.
+ */
+@Component
+public class BookJsonCache implements MeterBinder {
+
+	/**
+	 * Custo aproximado da entrada e da chave no heap, além dos próprios bytes.
+	 */
+	private static final int ENTRY_OVERHEAD = 96;
+
+	private final ObjectMapper objectMapper;
+	private final boolean enabled;
+	private final boolean gzip;
+	private final int gzipMinSize;
+	private final Cache<Long, Entry> cache;
+
+	public BookJsonCache(ObjectMapper objectMapper,
+						 @Value("${library.cache.book-json.enabled:false}") boolean enabled,
+						 @Value("${library.cache.book-json.maximum-size:16MB}") DataSize maximumSize,
+						 @Value("${library.cache.book-json.gzip:false}") boolean gzip,
+						 @Value("${library.cache.book-json.gzip-min-size:1KB}") DataSize gzipMinSize) {
+		this.objectMapper = objectMapper;
+		this.enabled = enabled;
+		this.gzip = gzip;
+		this.gzipMinSize = (int) gzipMinSize.toBytes();
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maximumSize.toBytes())
+				.weigher((Long id, Entry entry) -> entry.weight())
+				.executor(Runnable::run)
+				.recordStats()
+				.build();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public Optional<Entry> get(Long id, Long version) {
+		if (!enabled || id == null || version == null) {
+			return Optional.empty();
+		}
+		Entry entry = cache.getIfPresent(id);
+		return entry != null && version.equals(entry.getVersion()) ? Optional.of(entry) : Optional.empty();
+	}
+
+	/**
+	 * Serializa o DTO e, se o cache estiver habilitado, guarda o resultado para a versão do DTO.
+	 */
+	public Entry put(BookDTO dto) {
+		Entry entry = encode(dto);
+		if (enabled && dto.getId() != null && dto.getVersion() != null) {
+			cache.asMap().merge(dto.getId(), entry, (current, candidate) ->
+					candidate.getVersion() >= current.getVersion() ? candidate : current);
+		}
+		return entry;
+	}
+
+	public void invalidate(Long id) {
+		if (id != null) {
+			cache.invalidate(id);
+		}
+	}
+
+	public long size() {
+		return cache.estimatedSize();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookChanged(BookChangedEvent event) {
+		if (event.getType() != BookChangedEvent.Type.SAVED) {
+			event.getBooks().stream().map(Book::getId).forEach(this::invalidate);
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "book-json");
+	}
+
+	private Entry encode(BookDTO dto) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(dto);
+			byte[] compressed = gzip && json.length >= gzipMinSize ? compress(json) : null;
+			return new Entry(dto.getVersion(), json, compressed != null && compressed.length < json.length ? compressed : null);
+		} catch (JsonProcessingException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	private static byte[] compress(byte[] json) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length);
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(json);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return bytes.toByteArray();
+	}
+
+	@Getter
+	public static class Entry {
+
+		private final Long version;
+		private final byte[] json;
+		private final byte[] gzip;
+
+		Entry(Long version, byte[] json, byte[] gzip) {
+			this.version = version;
+			this.json = json;
+			this.gzip = gzip;
+		}
+
+		int weight() {
+			return ENTRY_OVERHEAD + json.length + (gzip == null ? 0 : gzip.length);
+		}
+	}
+}
@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import javax.validation.constraints.NotEmpty;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class BookDTO {
@@ -24,4 +24,6 @@ public class BookDTO {
 	@NotEmpty
 	private String isbn;
 
+	private Long version;
+
 }
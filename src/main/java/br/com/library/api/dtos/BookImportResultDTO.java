@@ -0,0 +1,26 @@
+package br.com.library.api.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportResultDTO {
+
+	public enum Status {
+		CREATED, INVALID, DUPLICATE
+	}
+
+	private int index;
+	private Long id;
+	private String isbn;
+	private Status status;
+	private List<String> errors;
+
+}
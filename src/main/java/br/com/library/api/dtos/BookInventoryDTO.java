@@ -0,0 +1,23 @@
+package br.com.library.api.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PositiveOrZero;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookInventoryDTO {
+
+	@NotNull
+	@PositiveOrZero
+	private Integer copies;
+
+	private Integer available;
+
+}
@@ -0,0 +1,20 @@
+package br.com.library.api.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookLookupResultDTO {
+
+	private List<BookDTO> content;
+	private List<Long> missingIds;
+	private List<String> missingIsbns;
+
+}
@@ -0,0 +1,21 @@
+package br.com.library.api.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSliceDTO {
+
+	private List<BookDTO> content;
+	private int size;
+	private boolean hasNext;
+	private String nextCursor;
+
+}
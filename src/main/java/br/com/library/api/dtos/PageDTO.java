@@ -0,0 +1,38 @@
+package br.com.library.api.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Envelope de página com campos fixos, usado nas respostas em CBOR e Smile. Diferente da serialização de
+ * {@link Page}, não expõe {@code pageable}, {@code sort} nem outros detalhes internos do Spring Data, então o
+ * formato não muda com a versão da biblioteca e pode ser lido de volta por qualquer cliente.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDTO<T> {
+
+	private List<T> content;
+	private int number;
+	private int size;
+	private long totalElements;
+	private int totalPages;
+
+	public static <T> PageDTO<T> of(Page<T> page) {
+		return PageDTO.<T>builder()
+				.content(page.getContent())
+				.number(page.getNumber())
+				.size(page.getSize())
+				.totalElements(page.getTotalElements())
+				.totalPages(page.getTotalPages())
+				.build();
+	}
+
+}
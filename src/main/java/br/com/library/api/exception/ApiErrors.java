@@ -20,6 +20,10 @@ public class ApiErrors {
 		this.errors = Arrays.asList(exception.getMessage());
 	}
 
+	public ApiErrors(String message) {
+		this.errors = Arrays.asList(message);
+	}
+
 	public List<String> getErrors() {
 		return errors;
 	}
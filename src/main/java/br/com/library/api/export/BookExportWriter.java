@@ -0,0 +1,102 @@
+package br.com.library.api.export;
+
+import br.com.library.api.dtos.BookDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escreve livros um a um na saída da exportação, sem acumular linhas em memória.
+ */
+public abstract class BookExportWriter implements Closeable {
+
+	public static final String NDJSON = "ndjson";
+	public static final String CSV = "csv";
+
+	public static BookExportWriter of(String format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+		if (NDJSON.equalsIgnoreCase(format)) {
+			return new NdjsonWriter(out, objectMapper);
+		}
+		if (CSV.equalsIgnoreCase(format)) {
+			return new CsvWriter(out);
+		}
+		throw new IllegalArgumentException("Formato de exportação não suportado: " + format);
+	}
+
+	public static String contentType(String format) {
+		return CSV.equalsIgnoreCase(format) ? "text/csv;charset=UTF-8" : "application/x-ndjson";
+	}
+
+	public abstract void write(BookDTO book) throws IOException;
+
+	private static class NdjsonWriter extends BookExportWriter {
+
+		private final JsonGenerator generator;
+		private final ObjectWriter writer;
+
+		NdjsonWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+			this.generator = objectMapper.getFactory().createGenerator(out).setRootValueSeparator(null);
+			this.writer = objectMapper.writerFor(BookDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		}
+
+		@Override
+		public void write(BookDTO book) throws IOException {
+			writer.writeValue(generator, book);
+			generator.writeRaw('\n');
+		}
+
+		@Override
+		public void close() throws IOException {
+			generator.close();
+		}
+	}
+
+	private static class CsvWriter extends BookExportWriter {
+
+		private final Writer writer;
+
+		CsvWriter(OutputStream out) throws IOException {
+			this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			writer.write("id,title,author,isbn\n");
+		}
+
+		@Override
+		public void write(BookDTO book) throws IOException {
+			writer.write(book.getId() == null ? "" : book.getId().toString());
+			writer.write(',');
+			writeField(book.getTitle());
+			writer.write(',');
+			writeField(book.getAuthor());
+			writer.write(',');
+			writeField(book.getIsbn());
+			writer.write('\n');
+		}
+
+		private void writeField(String value) throws IOException {
+			if (value == null) {
+				return;
+			}
+			if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+				writer.write(value);
+				return;
+			}
+			writer.write('"');
+			writer.write(value.replace("\"", "\"\""));
+			writer.write('"');
+		}
+
+		@Override
+		public void close() throws IOException {
+			writer.close();
+		}
+	}
+}
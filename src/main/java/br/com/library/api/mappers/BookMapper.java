@@ -0,0 +1,10 @@
+package br.com.library.api.mappers;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.model.entity.Book;
+
+public interface BookMapper {
+	Book toEntity(BookDTO dto);
+
+	BookDTO toDto(Book book);
+}
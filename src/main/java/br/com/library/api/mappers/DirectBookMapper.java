@@ -0,0 +1,33 @@
+package br.com.library.api.mappers;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.model.entity.Book;
+
+/**
+ * Mapeamento escrito à mão entre {@link Book} e {@link BookDTO}, sem reflexão
+ * nem consulta a type maps em tempo de requisição.
+ */
+public class DirectBookMapper implements BookMapper {
+
+	@Override
+	public Book toEntity(BookDTO dto) {
+		if (dto == null) {
+			return null;
+		}
+		Book book = new Book();
+		book.setId(dto.getId());
+		book.setTitle(dto.getTitle());
+		book.setAuthor(dto.getAuthor());
+		book.setIsbn(dto.getIsbn());
+		book.setVersion(dto.getVersion());
+		return book;
+	}
+
+	@Override
+	public BookDTO toDto(Book book) {
+		if (book == null) {
+			return null;
+		}
+		return new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getVersion());
+	}
+}
@@ -0,0 +1,31 @@
+package br.com.library.api.mappers;
+
+import br.com.library.api.dtos.LoanDTO;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.Loan;
+
+/**
+ * Mapeamento escrito à mão entre {@link Loan} e {@link LoanDTO}.
+ */
+public class DirectLoanMapper implements LoanMapper {
+
+	@Override
+	public Loan toEntity(LoanDTO dto, Book book) {
+		if (dto == null) {
+			return null;
+		}
+		Loan loan = new Loan();
+		loan.setCustomer(dto.getCustomer());
+		loan.setBook(book);
+		return loan;
+	}
+
+	@Override
+	public LoanDTO toDto(Loan loan) {
+		if (loan == null) {
+			return null;
+		}
+		Book book = loan.getBook();
+		return new LoanDTO(book == null ? null : book.getIsbn(), loan.getCustomer());
+	}
+}
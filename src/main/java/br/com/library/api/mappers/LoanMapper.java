@@ -0,0 +1,11 @@
+package br.com.library.api.mappers;
+
+import br.com.library.api.dtos.LoanDTO;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.Loan;
+
+public interface LoanMapper {
+	Loan toEntity(LoanDTO dto, Book book);
+
+	LoanDTO toDto(Loan loan);
+}
@@ -0,0 +1,27 @@
+package br.com.library.api.mappers;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.model.entity.Book;
+import org.modelmapper.ModelMapper;
+
+/**
+ * Mapeamento reflexivo via {@link ModelMapper}, mantido como alternativa configurável.
+ */
+public class ModelMapperBookMapper implements BookMapper {
+
+	private final ModelMapper modelMapper;
+
+	public ModelMapperBookMapper(ModelMapper modelMapper) {
+		this.modelMapper = modelMapper;
+	}
+
+	@Override
+	public Book toEntity(BookDTO dto) {
+		return dto == null ? null : modelMapper.map(dto, Book.class);
+	}
+
+	@Override
+	public BookDTO toDto(Book book) {
+		return book == null ? null : modelMapper.map(book, BookDTO.class);
+	}
+}
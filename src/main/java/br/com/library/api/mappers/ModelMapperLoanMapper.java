@@ -0,0 +1,37 @@
+package br.com.library.api.mappers;
+
+import br.com.library.api.dtos.LoanDTO;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.Loan;
+import org.modelmapper.ModelMapper;
+
+/**
+ * Mapeamento reflexivo via {@link ModelMapper}, mantido como alternativa configurável.
+ */
+public class ModelMapperLoanMapper implements LoanMapper {
+
+	private final ModelMapper modelMapper;
+
+	public ModelMapperLoanMapper(ModelMapper modelMapper) {
+		this.modelMapper = modelMapper;
+		if (modelMapper.getTypeMap(Loan.class, LoanDTO.class) == null) {
+			modelMapper.createTypeMap(Loan.class, LoanDTO.class)
+					.addMapping(loan -> loan.getBook().getIsbn(), LoanDTO::setIsbn);
+		}
+	}
+
+	@Override
+	public Loan toEntity(LoanDTO dto, Book book) {
+		if (dto == null) {
+			return null;
+		}
+		Loan loan = modelMapper.map(dto, Loan.class);
+		loan.setBook(book);
+		return loan;
+	}
+
+	@Override
+	public LoanDTO toDto(Loan loan) {
+		return loan == null ? null : modelMapper.map(loan, LoanDTO.class);
+	}
+}
@@ -0,0 +1,50 @@
+package br.com.library.api.resources;
+
+import java.util.Locale;
+
+/**
+ * Leitura do cabeçalho Accept-Encoding, com os valores de q: {@code gzip;q=0} recusa o gzip.
+ */
+final class AcceptEncoding {
+
+	private AcceptEncoding() {
+	}
+
+	/**
+	 * O gzip é aceito quando o q de {@code gzip} (ou {@code x-gzip}) é maior que zero; se ele não aparece no
+	 * cabeçalho, vale o q de {@code *}. Sem cabeçalho, a resposta vai sem compressão.
+	 */
+	static boolean acceptsGzip(String header) {
+		if (header == null) {
+			return false;
+		}
+		Double gzip = null;
+		Double any = null;
+		for (String coding : header.split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].trim().toLowerCase(Locale.ROOT);
+			double quality = quality(parts);
+			if (name.equals("gzip") || name.equals("x-gzip")) {
+				gzip = gzip == null ? quality : Math.max(gzip, quality);
+			} else if (name.equals("*")) {
+				any = quality;
+			}
+		}
+		Double quality = gzip != null ? gzip : any;
+		return quality != null && quality > 0;
+	}
+
+	private static double quality(String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			String parameter = parts[i].trim();
+			if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+				try {
+					return Double.parseDouble(parameter.substring(2).trim());
+				} catch (NumberFormatException exception) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+}
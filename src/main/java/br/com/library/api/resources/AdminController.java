@@ -0,0 +1,40 @@
+package br.com.library.api.resources;
+
+import br.com.library.api.dtos.CacheStatsDTO;
+import br.com.library.metrics.SlowQuery;
+import br.com.library.metrics.SlowQueryTracer;
+import br.com.library.services.cache.IsbnCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+	private final IsbnCache isbnCache;
+	private final SlowQueryTracer slowQueryTracer;
+
+	@GetMapping("caches/isbn")
+	public CacheStatsDTO isbnCacheStats() {
+		CacheStats stats = isbnCache.stats();
+		return CacheStatsDTO.builder()
+				.size(isbnCache.size())
+				.hitCount(stats.hitCount())
+				.missCount(stats.missCount())
+				.hitRate(stats.hitRate())
+				.evictionCount(stats.evictionCount())
+				.build();
+	}
+
+	@GetMapping("slow-queries")
+	public List<SlowQuery> slowQueries() {
+		return slowQueryTracer.recent();
+	}
+
+}
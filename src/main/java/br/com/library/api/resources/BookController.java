@@ -1,58 +1,188 @@
 package br.com.library.api.resources;
 
+import br.com.library.api.cache.BookJsonCache;
 import br.com.library.api.dtos.BookDTO;
+import br.com.library.api.dtos.BookImportResultDTO;
+import br.com.library.api.dtos.BookLookupDTO;
+import br.com.library.api.dtos.BookLookupResultDTO;
+import br.com.library.api.dtos.BookSliceDTO;
+import br.com.library.api.dtos.PageDTO;
 import br.com.library.api.exception.ApiErrors;
+import br.com.library.api.export.BookExportWriter;
+import br.com.library.api.mappers.BookMapper;
 import br.com.library.exceptions.BusinessException;
+import br.com.library.metrics.MappingMetrics;
+import br.com.library.metrics.SlowQueryTracer;
 import br.com.library.model.entity.Book;
+import br.com.library.services.BookSearchService;
 import br.com.library.services.BookService;
-import org.modelmapper.ModelMapper;
+import br.com.library.services.cache.BookVersionCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
+	static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+	static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+	static final int MAX_SLICE_SIZE = 1000;
+	static final int MAX_LOOKUP_SIZE = 500;
+
 	private final BookService bookService;
-	private final ModelMapper modelMapper;
+	private final BookSearchService bookSearchService;
+	private final BookMapper bookMapper;
+	private final Validator validator;
+	private final ObjectMapper objectMapper;
+	private final SlowQueryTracer slowQueryTracer;
+	private final BookVersionCache bookVersions;
+	private final BookJsonCache bookJson;
+	private final MappingMetrics mappingMetrics;
+	private final int importChunkSize;
 
-	public BookController(BookService bookService, ModelMapper modelMapper) {
+	public BookController(BookService bookService, BookSearchService bookSearchService, BookMapper bookMapper,
+						  Validator validator, ObjectMapper objectMapper, SlowQueryTracer slowQueryTracer,
+						  BookVersionCache bookVersions, BookJsonCache bookJson, MappingMetrics mappingMetrics,
+						  @Value("${library.import.chunk-size:500}") int importChunkSize) {
 		this.bookService = bookService;
-		this.modelMapper = modelMapper;
+		this.bookSearchService = bookSearchService;
+		this.bookMapper = bookMapper;
+		this.validator = validator;
+		this.objectMapper = objectMapper;
+		this.slowQueryTracer = slowQueryTracer;
+		this.bookVersions = bookVersions;
+		this.bookJson = bookJson;
+		this.mappingMetrics = mappingMetrics;
+		this.importChunkSize = importChunkSize;
 	}
 
 	@PostMapping
 	@ResponseStatus(HttpStatus.CREATED)
 	public BookDTO create(@RequestBody @Valid BookDTO dto) {
-		Book book = modelMapper.map(dto, Book.class);
-		book = bookService.save(book);
-		return modelMapper.map(book, BookDTO.class);
+		Book book = bookService.save(bookMapper.toEntity(dto));
+		return mappingMetrics.time("create", () -> bookMapper.toDto(book));
+	}
+
+	@PostMapping(value = "batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public List<BookImportResultDTO> createBatch(@RequestBody List<BookDTO> dtos) {
+		List<BookImportResultDTO> results = new ArrayList<>(dtos.size());
+		for (int start = 0; start < dtos.size(); start += importChunkSize) {
+			List<BookDTO> chunk = dtos.subList(start, Math.min(start + importChunkSize, dtos.size()));
+			results.addAll(importChunk(chunk, start));
+		}
+		return results;
 	}
 
+	@PostMapping(value = "batch", consumes = APPLICATION_NDJSON_VALUE)
+	public List<BookImportResultDTO> createBatchStream(InputStream body) throws IOException {
+		List<BookImportResultDTO> results = new ArrayList<>();
+		List<BookDTO> chunk = new ArrayList<>(importChunkSize);
+		try (MappingIterator<BookDTO> lines = objectMapper.readerFor(BookDTO.class).readValues(body)) {
+			while (lines.hasNext()) {
+				chunk.add(lines.next());
+				if (chunk.size() == importChunkSize) {
+					results.addAll(importChunk(chunk, results.size()));
+					chunk.clear();
+				}
+			}
+		} catch (JsonProcessingException exception) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"Linha inválida após " + (results.size() + chunk.size()) + " livros processados.", exception);
+		}
+		if (!chunk.isEmpty()) {
+			results.addAll(importChunk(chunk, results.size()));
+		}
+		return results;
+	}
+
+	/**
+	 * Responde 304 sem consultar o repositório quando o If-None-Match traz a versão já conhecida do livro. Com o
+	 * {@link BookJsonCache} habilitado, a versão conhecida também serve o corpo já codificado, sem consultar o
+	 * repositório, mapear nem serializar.
+	 */
 	@GetMapping("{id}")
-	@ResponseStatus(HttpStatus.OK)
-	public BookDTO get(@PathVariable Long id) {
-		return bookService.getById(id).map(book -> modelMapper.map(book, BookDTO.class))
-				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+	public ResponseEntity<?> get(@PathVariable Long id,
+								 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+								 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		Optional<Long> knownVersion = bookVersions.get(id);
+		String knownETag = knownVersion.map(ETags::of).orElse(null);
+		String gzipETag = ETags.gzip(knownETag);
+		if (ETags.weakMatch(ifNoneMatch, knownETag) || ETags.weakMatch(ifNoneMatch, gzipETag)) {
+			ResponseEntity.BodyBuilder notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+					.eTag(ETags.weakMatch(ifNoneMatch, knownETag) ? knownETag : gzipETag);
+			return (bookJson.isEnabled() ? notModified.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+					: notModified.varyBy(HttpHeaders.ACCEPT)).build();
+		}
+		Optional<BookJsonCache.Entry> cached = knownVersion.flatMap(version -> bookJson.get(id, version));
+		if (cached.isPresent()) {
+			return json(cached.get(), acceptEncoding);
+		}
+		BookDTO dto = load(id);
+		if (!bookJson.isEnabled()) {
+			return withETag(ResponseEntity.ok(), ETags.of(dto.getVersion())).varyBy(HttpHeaders.ACCEPT).body(dto);
+		}
+		return json(bookJson.put(dto), acceptEncoding);
+	}
+
+	/**
+	 * O mesmo livro em CBOR ou Smile, sem passar pelo {@link BookJsonCache}. A ETag é fraca, porque a versão
+	 * identifica o conteúdo e não os bytes desta representação, e continua valendo no If-None-Match.
+	 */
+	@GetMapping(value = "{id}", produces = {MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+	public ResponseEntity<BookDTO> getBinary(@PathVariable Long id,
+											 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		String knownETag = bookVersions.get(id).map(ETags::of).orElse(null);
+		if (ETags.weakMatch(ifNoneMatch, knownETag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.weak(knownETag)).varyBy(HttpHeaders.ACCEPT).build();
+		}
+		BookDTO dto = load(id);
+		return withETag(ResponseEntity.ok(), ETags.weak(ETags.of(dto.getVersion()))).varyBy(HttpHeaders.ACCEPT).body(dto);
 	}
 
 	@DeleteMapping("{id}")
@@ -62,28 +192,257 @@ public class BookController {
 		bookService.delete(book);
 	}
 
+	/**
+	 * Com If-Match, ou com a versão no corpo, só altera o livro se ela corresponder à versão atual: If-Match
+	 * divergente responde 412 e uma escrita concorrente detectada ao salvar responde 409. Sem nenhuma das duas,
+	 * título e autor são reaplicados sobre a versão atual, com novas tentativas limitadas em caso de conflito.
+	 */
 	@PutMapping("{id}")
-	public BookDTO update(@PathVariable Long id, BookDTO dto) {
-		return bookService.getById(id).map(book -> {
+	public ResponseEntity<BookDTO> update(@PathVariable Long id, @RequestBody BookDTO dto,
+										  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		return update(id, dto.getVersion(), ifMatch, book -> {
 			book.setAuthor(dto.getAuthor());
 			book.setTitle(dto.getTitle());
-			book = bookService.update(book);
-			return modelMapper.map(book, BookDTO.class);
-		}).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+		});
 	}
 
+	/**
+	 * Alteração parcial: só título e autor presentes no documento são alterados, e como o livro usa
+	 * atualização dinâmica, o UPDATE grava apenas as colunas que mudaram. Versão e If-Match seguem as mesmas
+	 * regras do PUT.
+	 */
+	@PatchMapping("{id}")
+	public ResponseEntity<BookDTO> patch(@PathVariable Long id, @RequestBody BookDTO dto,
+										 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		return update(id, dto.getVersion(), ifMatch, book -> {
+			if (dto.getAuthor() != null) {
+				book.setAuthor(dto.getAuthor());
+			}
+			if (dto.getTitle() != null) {
+				book.setTitle(dto.getTitle());
+			}
+		});
+	}
+
+	/**
+	 * A ETag da busca é a versão do acervo, que muda a cada escrita: enquanto nada mudar, o If-None-Match
+	 * é respondido com 304 sem consultar o repositório.
+	 */
 	@GetMapping
-	public Page<BookDTO> find(BookDTO dto, Pageable pageRequest) {
-		Book filter = modelMapper.map(dto, Book.class);
-		Page<Book> result = bookService.find(filter, pageRequest);
-		List<BookDTO> list = result.getContent()
+	public ResponseEntity<Page<BookDTO>> find(BookDTO dto, Pageable pageRequest,
+											  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return find(dto, pageRequest, ifNoneMatch, ETags.of(bookVersions.catalogVersion()), Function.identity());
+	}
+
+	/**
+	 * A mesma busca em CBOR ou Smile, com a página no envelope {@link PageDTO} e ETag fraca da versão do acervo.
+	 */
+	@GetMapping(produces = {MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+	public ResponseEntity<PageDTO<BookDTO>> findBinary(BookDTO dto, Pageable pageRequest,
+													   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return find(dto, pageRequest, ifNoneMatch, ETags.weak(ETags.of(bookVersions.catalogVersion())), PageDTO::of);
+	}
+
+	@GetMapping(params = "after")
+	public BookSliceDTO findAfter(BookDTO dto, @RequestParam("after") String after,
+								  @RequestParam(defaultValue = "20") int size) {
+		if (size < 1 || size > MAX_SLICE_SIZE) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O tamanho da página deve estar entre 1 e " + MAX_SLICE_SIZE + ".");
+		}
+		Book filter = filter(dto);
+		Slice<BookDTO> result = bookService.findDtosAfter(filter, BookCursor.decode(after), size);
+		List<BookDTO> list = result.getContent();
+
+		String nextCursor = result.hasNext() ? BookCursor.encode(list.get(list.size() - 1).getId()) : null;
+		return BookSliceDTO.builder().content(list).size(size).hasNext(result.hasNext()).nextCursor(nextCursor).build();
+	}
+
+	/**
+	 * Vários livros por id em uma requisição, na ordem pedida; os ids inexistentes vão em {@code missingIds}.
+	 */
+	@GetMapping(params = "ids")
+	public BookLookupResultDTO findByIds(@RequestParam("ids") List<Long> ids) {
+		return lookup(BookLookupDTO.builder().ids(ids).build());
+	}
+
+	/**
+	 * Vários livros por id e/ou ISBN em uma requisição: primeiro os encontrados pelos ids, depois pelos ISBNs,
+	 * cada grupo na ordem pedida e sem repetições; as chaves inexistentes vão em {@code missingIds} e
+	 * {@code missingIsbns}. No máximo {@value #MAX_LOOKUP_SIZE} chaves por requisição.
+	 */
+	@PostMapping("lookup")
+	public BookLookupResultDTO lookup(@RequestBody BookLookupDTO dto) {
+		List<Long> ids = dto.getIds() == null ? Collections.emptyList()
+				: dto.getIds().stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+		List<String> isbns = dto.getIsbns() == null ? Collections.emptyList()
+				: dto.getIsbns().stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+		if (ids.size() + isbns.size() > MAX_LOOKUP_SIZE) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe no máximo " + MAX_LOOKUP_SIZE + " livros por consulta.");
+		}
+
+		Map<Long, Book> booksById = ids.isEmpty() ? Collections.emptyMap() : bookService.getByIds(ids);
+		Map<String, Book> booksByIsbn = isbns.isEmpty() ? Collections.emptyMap() : bookService.getByIsbns(isbns);
+		return mappingMetrics.time("lookup", () -> {
+			List<BookDTO> content = new ArrayList<>(ids.size() + isbns.size());
+			List<Long> missingIds = new ArrayList<>();
+			List<String> missingIsbns = new ArrayList<>();
+			for (Long id : ids) {
+				Book book = booksById.get(id);
+				if (book == null) {
+					missingIds.add(id);
+				} else {
+					content.add(bookMapper.toDto(book));
+				}
+			}
+			for (String isbn : isbns) {
+				Book book = booksByIsbn.get(isbn);
+				if (book == null) {
+					missingIsbns.add(isbn);
+				} else {
+					content.add(bookMapper.toDto(book));
+				}
+			}
+			return BookLookupResultDTO.builder().content(content).missingIds(missingIds).missingIsbns(missingIsbns).build();
+		});
+	}
+
+	@GetMapping("search")
+	public Page<BookDTO> search(@RequestParam("q") String query, Pageable pageRequest) {
+		Page<Book> result = bookSearchService.search(query, pageRequest);
+		List<BookDTO> list = mappingMetrics.time("search", () -> result.getContent()
 				.stream()
-				.map(entity -> modelMapper.map(entity, BookDTO.class))
-				.collect(Collectors.toList());
+				.map(bookMapper::toDto)
+				.collect(Collectors.toList()));
 
 		return new PageImpl<BookDTO>(list, pageRequest, result.getTotalElements());
 	}
 
+	@GetMapping("export")
+	public ResponseEntity<StreamingResponseBody> export(BookDTO dto,
+			@RequestParam(defaultValue = BookExportWriter.NDJSON) String format) {
+		if (!BookExportWriter.NDJSON.equalsIgnoreCase(format) && !BookExportWriter.CSV.equalsIgnoreCase(format)) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato de exportação não suportado.");
+		}
+		Book filter = filter(dto);
+		StreamingResponseBody body = out -> {
+			try (BookExportWriter writer = BookExportWriter.of(format, out, objectMapper)) {
+				bookService.export(filter, book -> {
+					try {
+						writer.write(bookMapper.toDto(book));
+					} catch (IOException exception) {
+						throw new UncheckedIOException(exception);
+					}
+				});
+			}
+		};
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(BookExportWriter.contentType(format)))
+				.body(body);
+	}
+
+	private List<BookImportResultDTO> importChunk(List<BookDTO> chunk, int offset) {
+		List<BookImportResultDTO> results = new ArrayList<>(chunk.size());
+		List<Book> books = new ArrayList<>(chunk.size());
+		for (int i = 0; i < chunk.size(); i++) {
+			BookDTO dto = chunk.get(i);
+			BookImportResultDTO result = BookImportResultDTO.builder().index(offset + i).isbn(dto.getIsbn()).build();
+			Set<ConstraintViolation<BookDTO>> violations = validator.validate(dto);
+			if (violations.isEmpty()) {
+				dto.setId(null);
+				books.add(bookMapper.toEntity(dto));
+			} else {
+				result.setStatus(BookImportResultDTO.Status.INVALID);
+				result.setErrors(violations.stream()
+						.map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+						.collect(Collectors.toList()));
+			}
+			results.add(result);
+		}
+
+		Map<String, Long> savedIds = new HashMap<>();
+		if (!books.isEmpty()) {
+			bookService.saveAll(books).forEach(book -> savedIds.put(book.getIsbn(), book.getId()));
+		}
+		for (BookImportResultDTO result : results) {
+			if (result.getStatus() == null) {
+				Long id = savedIds.remove(result.getIsbn());
+				result.setId(id);
+				result.setStatus(id != null ? BookImportResultDTO.Status.CREATED : BookImportResultDTO.Status.DUPLICATE);
+			}
+		}
+		return results;
+	}
+
+	private BookDTO load(Long id) {
+		Book book = bookService.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+		bookVersions.put(book.getId(), book.getVersion());
+		return mappingMetrics.time("get", () -> bookMapper.toDto(book));
+	}
+
+	/**
+	 * Filtro das listagens: id por igualdade e título, autor e ISBN por trecho. A versão não filtra as listagens e,
+	 * quando informada, é recusada em vez de ignorada.
+	 */
+	private Book filter(BookDTO dto) {
+		if (dto.getVersion() != null) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A versão não pode ser usada como filtro da busca.");
+		}
+		return bookMapper.toEntity(dto);
+	}
+
+	private <T> ResponseEntity<T> find(BookDTO dto, Pageable pageRequest, String ifNoneMatch, String etag,
+									   Function<Page<BookDTO>, T> envelope) {
+		Book filter = filter(dto);
+		if (ETags.weakMatch(ifNoneMatch, etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+		}
+		try (SlowQueryTracer.Span span = slowQueryTracer.start("find", filter, pageRequest)) {
+			Page<BookDTO> result = bookService.findDtos(filter, pageRequest);
+			span.fetched(result);
+			span.mapped();
+
+			return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(envelope.apply(result));
+		}
+	}
+
+	private ResponseEntity<BookDTO> update(Long id, Long version, String ifMatch, Consumer<Book> changes) {
+		Book book;
+		if (ifMatch == null && version == null) {
+			book = bookService.merge(id, changes).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+		} else {
+			book = bookService.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+			String etag = ETags.of(book.getVersion());
+			if (ifMatch != null && !ETags.strongMatch(ifMatch, etag) && !ETags.strongMatch(ifMatch, ETags.gzip(etag))) {
+				throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "O livro foi alterado desde a última leitura.");
+			}
+			if (version != null) {
+				book.setVersion(version);
+			}
+			changes.accept(book);
+			book = bookService.update(book);
+		}
+		return withETag(ResponseEntity.ok(), ETags.of(book.getVersion())).body(bookMapper.toDto(book));
+	}
+
+	/**
+	 * Escreve o corpo já codificado do cache, comprimido quando houver versão gzip e o cliente aceitar. A versão
+	 * comprimida leva a sua própria ETag forte, já que os bytes são outros.
+	 */
+	private static ResponseEntity<byte[]> json(BookJsonCache.Entry entry, String acceptEncoding) {
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+		String etag = ETags.of(entry.getVersion());
+		if (entry.getGzip() != null && AcceptEncoding.acceptsGzip(acceptEncoding)) {
+			return withETag(builder, ETags.gzip(etag)).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.getGzip());
+		}
+		return withETag(builder, etag).body(entry.getJson());
+	}
+
+	private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, String etag) {
+		return etag == null ? builder : builder.eTag(etag);
+	}
+
 	@ExceptionHandler(MethodArgumentNotValidException.class)
 	@ResponseStatus(HttpStatus.BAD_REQUEST)
 	public ApiErrors handleValidationExceptions(MethodArgumentNotValidException exception) {
@@ -91,6 +450,12 @@ public class BookController {
 		return new ApiErrors(bindResult);
 	}
 
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	@ResponseStatus(HttpStatus.CONFLICT)
+	public ApiErrors handleOptimisticLockingFailure(OptimisticLockingFailureException exception) {
+		return new ApiErrors("O livro foi alterado por outra requisição; leia a versão atual e tente novamente.");
+	}
+
 	@ExceptionHandler(BusinessException.class)
 	@ResponseStatus(HttpStatus.BAD_REQUEST)
 	public ApiErrors handleBusinessException(BusinessException exception) {
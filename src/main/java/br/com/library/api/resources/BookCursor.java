@@ -0,0 +1,38 @@
+package br.com.library.api.resources;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação por chave: o id do último livro retornado, codificado em base64 url-safe.
+ */
+final class BookCursor {
+
+	private static final String PREFIX = "id:";
+
+	private BookCursor() {
+	}
+
+	static String encode(Long lastId) {
+		byte[] value = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value);
+	}
+
+	static Long decode(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			if (!value.startsWith(PREFIX)) {
+				throw new IllegalArgumentException(value);
+			}
+			return Long.valueOf(value.substring(PREFIX.length()));
+		} catch (IllegalArgumentException exception) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido.", exception);
+		}
+	}
+}
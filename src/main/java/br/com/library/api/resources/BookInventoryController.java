@@ -0,0 +1,70 @@
+package br.com.library.api.resources;
+
+import br.com.library.api.dtos.BookInventoryDTO;
+import br.com.library.api.exception.ApiErrors;
+import br.com.library.exceptions.BusinessException;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.BookInventory;
+import br.com.library.services.BookInventoryService;
+import br.com.library.services.BookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.validation.Valid;
+
+/**
+ * Exemplares de um livro. Sem estoque cadastrado, o livro é tratado como exemplar único nos empréstimos.
+ */
+@RestController
+@RequestMapping("/api/books/{id}/inventory")
+@RequiredArgsConstructor
+public class BookInventoryController {
+
+	private final BookService bookService;
+	private final BookInventoryService inventoryService;
+
+	@GetMapping
+	public BookInventoryDTO get(@PathVariable Long id) {
+		return inventoryService.getByBook(getBook(id))
+				.map(BookInventoryController::toDto)
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+	}
+
+	@PutMapping
+	public BookInventoryDTO update(@PathVariable Long id, @RequestBody @Valid BookInventoryDTO dto) {
+		return toDto(inventoryService.setCopies(getBook(id), dto.getCopies()));
+	}
+
+	private Book getBook(Long id) {
+		return bookService.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+	}
+
+	private static BookInventoryDTO toDto(BookInventory inventory) {
+		return BookInventoryDTO.builder().copies(inventory.getCopies()).available(inventory.getAvailable()).build();
+	}
+
+	@ExceptionHandler(MethodArgumentNotValidException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public ApiErrors handleValidationExceptions(MethodArgumentNotValidException exception) {
+		BindingResult bindResult = exception.getBindingResult();
+		return new ApiErrors(bindResult);
+	}
+
+	@ExceptionHandler(BusinessException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public ApiErrors handleBusinessException(BusinessException exception) {
+		return new ApiErrors(exception);
+	}
+
+}
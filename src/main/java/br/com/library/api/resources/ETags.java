@@ -0,0 +1,67 @@
+package br.com.library.api.resources;
+
+/**
+ * Montagem e comparação de ETags para as requisições condicionais dos livros.
+ */
+final class ETags {
+
+	private static final String WEAK_PREFIX = "W/";
+	private static final String GZIP_SUFFIX = "-gzip";
+
+	private ETags() {
+	}
+
+	static String of(Object version) {
+		return version == null ? null : "\"" + version + "\"";
+	}
+
+	/**
+	 * A mesma ETag marcada como fraca, para representações do livro que não são o JSON (CBOR, Smile).
+	 */
+	static String weak(String etag) {
+		return etag == null || etag.startsWith(WEAK_PREFIX) ? etag : WEAK_PREFIX + etag;
+	}
+
+	/**
+	 * ETag da versão gzip do mesmo conteúdo: os bytes diferem da versão sem compressão, então a ETag forte também.
+	 */
+	static String gzip(String etag) {
+		return etag == null ? null : etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+	}
+
+	/**
+	 * Comparação fraca, usada pelo If-None-Match: ignora o prefixo {@code W/}.
+	 */
+	static boolean weakMatch(String header, String etag) {
+		if (header == null || etag == null) {
+			return false;
+		}
+		for (String candidate : header.split(",")) {
+			String tag = candidate.trim();
+			if (tag.equals("*") || strip(tag).equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Comparação forte, usada pelo If-Match: ETags fracas nunca casam.
+	 */
+	static boolean strongMatch(String header, String etag) {
+		if (header == null || etag == null) {
+			return false;
+		}
+		for (String candidate : header.split(",")) {
+			String tag = candidate.trim();
+			if (tag.equals("*") || tag.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String strip(String tag) {
+		return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+	}
+}
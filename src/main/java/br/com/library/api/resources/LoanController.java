@@ -1,17 +1,22 @@
 package br.com.library.api.resources;
 
 import br.com.library.api.dtos.LoanDTO;
+import br.com.library.api.exception.ApiErrors;
+import br.com.library.api.mappers.LoanMapper;
+import br.com.library.exceptions.BusinessException;
 import br.com.library.model.entity.Book;
 import br.com.library.model.entity.Loan;
 import br.com.library.services.BookService;
-import br.com.library.services.LoanService;
+import br.com.library.services.batch.LoanBatcher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 
@@ -20,18 +25,27 @@ import java.time.LocalDate;
 @RequiredArgsConstructor
 public class LoanController {
 
-	private final LoanService loanService;
 	private final BookService bookService;
+	private final LoanMapper loanMapper;
+	private final LoanBatcher loanBatcher;
 
 	@PostMapping
 	@ResponseStatus(HttpStatus.CREATED)
 	public Long create(@RequestBody LoanDTO dto) {
-		Book book = bookService.getBookByIsbn(dto.getIsbn()).get();
-		Loan loan = Loan.builder().book(book).customer(dto.getCustomer()).loanDate(LocalDate.now()).build();
+		Book book = bookService.getBookByIsbn(dto.getIsbn())
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Livro não encontrado para o isbn informado."));
+		Loan loan = loanMapper.toEntity(dto, book);
+		loan.setLoanDate(LocalDate.now());
 
-		loan = loanService.save(loan);
+		loan = loanBatcher.save(loan);
 
 		return loan.getId();
 	}
 
+	@ExceptionHandler(BusinessException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public ApiErrors handleBusinessException(BusinessException exception) {
+		return new ApiErrors(exception);
+	}
+
 }
@@ -0,0 +1,44 @@
+package br.com.library.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Timer {@value #METRIC} da etapa de mapeamento para DTO, com a tag {@code endpoint}: uma amostra por requisição,
+ * cobrindo todos os livros que ela mapeia, e não uma por chamada ao mapper. Enquanto não houver registry, o
+ * mapeamento roda sem medição.
+ */
+@Component
+public class MappingMetrics implements MeterBinder {
+
+	public static final String METRIC = "library.mapping";
+
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+	private volatile MeterRegistry registry;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	public <T> T time(String endpoint, Supplier<T> mapping) {
+		MeterRegistry current = registry;
+		if (current == null) {
+			return mapping.get();
+		}
+		Timer timer = timers.get(endpoint);
+		if (timer == null) {
+			timer = timers.computeIfAbsent(endpoint, key -> Timer.builder(METRIC)
+					.description("Tempo de mapeamento das entidades para DTO, por requisição")
+					.tag("endpoint", key)
+					.register(current));
+		}
+		return timer.record(mapping);
+	}
+}
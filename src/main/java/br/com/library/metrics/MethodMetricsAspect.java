@@ -0,0 +1,120 @@
+package br.com.library.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Timer {@value #METRIC} por método de serviço e repositório, com as tags {@code layer}, {@code class},
+ * {@code method} e {@code exception}. Os timers de sucesso são resolvidos uma vez por classe e método e guardados,
+ * de modo que a chamada medida não monta tags nem consulta o registry.
+ *
+ * <p>Os mappers não são medidos aqui: são chamados uma vez por livro, e uma página grande pagaria um proxy, duas
+ * leituras de relógio e a busca do timer por linha. O mapeamento é medido uma vez por requisição pelos endpoints,
+ * no timer {@value MappingMetrics#METRIC}.
+ */
+@Aspect
+@Component
+public class MethodMetricsAspect {
+
+	public static final String METRIC = "library.method";
+
+	private final MeterRegistry registry;
+	private final Map<Class<?>, Map<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+	public MethodMetricsAspect(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Around("execution(public * br.com.library.services.*Service+.*(..))")
+	public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time("service", joinPoint);
+	}
+
+	@Around("execution(public * br.com.library.model.repositories.*Repository+.*(..))")
+	public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time("repository", joinPoint);
+	}
+
+	private Object time(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+		long start = registry.config().clock().monotonicTime();
+		try {
+			Object result = joinPoint.proceed();
+			timer(layer, joinPoint).record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+			return result;
+		} catch (Throwable e) {
+			Timer.builder(METRIC)
+					.tags(tags(layer, joinPoint))
+					.tag("exception", e.getClass().getSimpleName())
+					.register(registry)
+					.record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+			throw e;
+		}
+	}
+
+	private Timer timer(String layer, ProceedingJoinPoint joinPoint) {
+		Class<?> type = joinPoint.getTarget().getClass();
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		Map<Method, Timer> byMethod = timers.get(type);
+		if (byMethod == null) {
+			byMethod = timers.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+		}
+		Timer timer = byMethod.get(method);
+		if (timer == null) {
+			timer = byMethod.computeIfAbsent(method, key -> Timer.builder(METRIC)
+					.description("Tempo de execução dos métodos de serviço e repositório")
+					.tags(tags(layer, joinPoint))
+					.tag("exception", "none")
+					.register(registry));
+		}
+		return timer;
+	}
+
+	private static String[] tags(String layer, ProceedingJoinPoint joinPoint) {
+		Class<?> type = userType(joinPoint.getTarget().getClass());
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		return new String[]{"layer", layer, "class", type.getSimpleName(), "method", methodName(type, method)};
+	}
+
+	/**
+	 * Classe do bean; para os repositórios do Spring Data, que são proxies JDK, a interface do repositório.
+	 */
+	private static Class<?> userType(Class<?> type) {
+		if (Proxy.isProxyClass(type)) {
+			return Arrays.stream(type.getInterfaces())
+					.filter(candidate -> candidate.getName().startsWith("br.com.library."))
+					.findFirst()
+					.orElse(type);
+		}
+		return ClassUtils.getUserClass(type);
+	}
+
+	/**
+	 * Nome do método; métodos sobrecarregados, como os {@code findAll} do Spring Data, levam os tipos dos parâmetros
+	 * para que a busca por {@code Example} não se misture às demais.
+	 */
+	private static String methodName(Class<?> type, Method method) {
+		long overloads = Arrays.stream(type.getMethods())
+				.filter(candidate -> candidate.getName().equals(method.getName()))
+				.count();
+		if (overloads <= 1) {
+			return method.getName();
+		}
+		return Arrays.stream(method.getParameterTypes())
+				.map(Class::getSimpleName)
+				.collect(Collectors.joining(",", method.getName() + "(", ")"));
+	}
+}
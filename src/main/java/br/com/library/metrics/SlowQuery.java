@@ -0,0 +1,41 @@
+package br.com.library.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Uma busca que excedeu o limite de tempo: forma do filtro, SQL gerado com o tempo de cada comando,
+ * quantidade de linhas e o tempo gasto no mapeamento para DTO.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQuery {
+
+	private Instant startedAt;
+	private String operation;
+	private String filter;
+	private String page;
+	private double totalMillis;
+	private double fetchMillis;
+	private double countMillis;
+	private double mappingMillis;
+	private int rows;
+	private long totalElements;
+	private List<Statement> statements;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Statement {
+		private String kind;
+		private String sql;
+		private double millis;
+	}
+}
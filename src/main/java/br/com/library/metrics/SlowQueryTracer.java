@@ -0,0 +1,202 @@
+package br.com.library.metrics;
+
+import br.com.library.model.entity.Book;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Rastreia buscas do acervo e guarda as que excedem {@code library.trace.slow-query.threshold}: o SQL gerado
+ * (capturado pelo {@link StatementInspector} do Hibernate na thread da requisição), o tempo da consulta dos dados
+ * separado do tempo da contagem, a quantidade de linhas e o tempo de mapeamento para DTO. Cada busca lenta vai para o
+ * log em JSON e para um buffer circular com as {@code library.trace.slow-query.buffer-size} mais recentes.
+ *
+ * <p>O tempo de cada comando vai do momento em que o Hibernate prepara o SQL até o próximo comando (ou o retorno do
+ * serviço), incluindo portanto a leitura e hidratação das linhas.
+ */
+@Slf4j
+@Component
+public class SlowQueryTracer implements StatementInspector, HibernatePropertiesCustomizer {
+
+	private static final int MAX_STATEMENTS = 20;
+
+	private final long thresholdNanos;
+	private final int bufferSize;
+	private final ObjectMapper objectMapper;
+	private final ThreadLocal<Span> current = new ThreadLocal<>();
+	private final Deque<SlowQuery> recent = new ArrayDeque<>();
+
+	public SlowQueryTracer(@Value("${library.trace.slow-query.threshold:PT0.5S}") Duration threshold,
+						   @Value("${library.trace.slow-query.buffer-size:100}") int bufferSize,
+						   ObjectMapper objectMapper) {
+		this.thresholdNanos = threshold.toNanos();
+		this.bufferSize = bufferSize;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public void customize(Map<String, Object> hibernateProperties) {
+		hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+	}
+
+	@Override
+	public String inspect(String sql) {
+		Span span = current.get();
+		if (span != null) {
+			span.statement(sql);
+		}
+		return sql;
+	}
+
+	/**
+	 * Abre o rastreamento de uma busca na thread atual; deve ser fechado, de preferência com try-with-resources.
+	 */
+	public Span start(String operation, Book filter, Pageable pageRequest) {
+		Span span = new Span(operation, shape(filter), String.valueOf(pageRequest));
+		current.set(span);
+		return span;
+	}
+
+	/**
+	 * Buscas lentas mais recentes, da mais nova para a mais antiga.
+	 */
+	public synchronized List<SlowQuery> recent() {
+		return new ArrayList<>(recent);
+	}
+
+	private void finish(Span span) {
+		long end = System.nanoTime();
+		if (end - span.start < thresholdNanos) {
+			return;
+		}
+		SlowQuery slowQuery = span.toSlowQuery(end);
+		synchronized (this) {
+			if (recent.size() == bufferSize) {
+				recent.removeLast();
+			}
+			recent.addFirst(slowQuery);
+		}
+		try {
+			log.warn(objectMapper.writeValueAsString(slowQuery));
+		} catch (JsonProcessingException e) {
+			log.warn("Busca lenta: {}", slowQuery, e);
+		}
+	}
+
+	private static String shape(Book filter) {
+		StringJoiner fields = new StringJoiner("+").setEmptyValue("none");
+		if (filter != null) {
+			if (filter.getTitle() != null) {
+				fields.add("title");
+			}
+			if (filter.getAuthor() != null) {
+				fields.add("author");
+			}
+			if (filter.getIsbn() != null) {
+				fields.add("isbn");
+			}
+		}
+		return fields.toString();
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	public final class Span implements AutoCloseable {
+
+		private final Instant startedAt = Instant.now();
+		private final long start = System.nanoTime();
+		private final String operation;
+		private final String filter;
+		private final String page;
+		private final List<String> sql = new ArrayList<>();
+		private final List<Long> preparedAt = new ArrayList<>();
+		private long fetchedAt;
+		private long mappedAt;
+		private int rows;
+		private long totalElements;
+
+		private Span(String operation, String filter, String page) {
+			this.operation = operation;
+			this.filter = filter;
+			this.page = page;
+		}
+
+		private void statement(String statement) {
+			if (sql.size() < MAX_STATEMENTS) {
+				sql.add(statement);
+				preparedAt.add(System.nanoTime());
+			}
+		}
+
+		/**
+		 * Marca o retorno do serviço, com a página já carregada.
+		 */
+		public void fetched(Page<?> result) {
+			fetchedAt = System.nanoTime();
+			rows = result.getNumberOfElements();
+			totalElements = result.getTotalElements();
+		}
+
+		/**
+		 * Marca o fim do mapeamento das linhas para DTO.
+		 */
+		public void mapped() {
+			mappedAt = System.nanoTime();
+		}
+
+		@Override
+		public void close() {
+			current.remove();
+			finish(this);
+		}
+
+		private SlowQuery toSlowQuery(long end) {
+			long serviceEnd = fetchedAt > 0 ? fetchedAt : end;
+			List<SlowQuery.Statement> statements = new ArrayList<>(sql.size());
+			long fetchNanos = 0;
+			long countNanos = 0;
+			for (int i = 0; i < sql.size(); i++) {
+				long nanos = (i + 1 < sql.size() ? preparedAt.get(i + 1) : serviceEnd) - preparedAt.get(i);
+				boolean count = sql.get(i).trim().toLowerCase(Locale.ROOT).startsWith("select count(");
+				if (count) {
+					countNanos += nanos;
+				} else {
+					fetchNanos += nanos;
+				}
+				statements.add(new SlowQuery.Statement(count ? "count" : "fetch", sql.get(i), millis(nanos)));
+			}
+			return SlowQuery.builder()
+					.startedAt(startedAt)
+					.operation(operation)
+					.filter(filter)
+					.page(page)
+					.totalMillis(millis(end - start))
+					.fetchMillis(millis(fetchNanos))
+					.countMillis(millis(countNanos))
+					.mappingMillis(fetchedAt > 0 && mappedAt > 0 ? millis(mappedAt - fetchedAt) : 0)
+					.rows(rows)
+					.totalElements(totalElements)
+					.statements(statements)
+					.build();
+		}
+	}
+}
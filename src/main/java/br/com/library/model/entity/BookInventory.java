@@ -0,0 +1,35 @@
+package br.com.library.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Exemplares de um livro: quantos existem e quantos estão disponíveis para empréstimo. Fica fora de {@link Book}
+ * para que cada empréstimo altere só esta linha, sem mexer na versão nem no cache de segundo nível do livro.
+ * O saldo é alterado apenas por UPDATEs condicionais em
+ * {@link br.com.library.model.repositories.BookInventoryRepository}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class BookInventory {
+
+	@Id
+	@Column(name = "book_id")
+	private Long bookId;
+
+	@Column(nullable = false)
+	private Integer copies;
+
+	@Column(nullable = false)
+	private Integer available;
+
+}
@@ -0,0 +1,43 @@
+package br.com.library.model.repositories;
+
+import br.com.library.model.entity.BookInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface BookInventoryRepository extends JpaRepository<BookInventory, Long> {
+
+	@Query("select i.bookId from BookInventory i where i.bookId in :bookIds")
+	Set<Long> findExistingIds(@Param("bookIds") Collection<Long> bookIds);
+
+	/**
+	 * Reserva um exemplar em um único UPDATE condicional: devolve 1 se havia exemplar disponível e 0 se não havia
+	 * (ou se o livro não tem estoque cadastrado). Não há leitura antes da escrita, então requisições concorrentes
+	 * não disputam um SELECT ... FOR UPDATE, só o bloqueio da própria linha até o commit.
+	 */
+	@Modifying
+	@Query("update BookInventory i set i.available = i.available - 1 where i.bookId = :bookId and i.available > 0")
+	int reserve(@Param("bookId") Long bookId);
+
+	/**
+	 * Cadastra o estoque com um INSERT direto, que falha pela chave primária se o livro já tiver estoque, em vez do
+	 * merge de {@code save}, que sobrescreveria o saldo de quem cadastrou primeiro.
+	 */
+	@Modifying
+	@Query(value = "insert into book_inventory (book_id, copies, available) values (:bookId, :copies, :available)",
+			nativeQuery = true)
+	int insert(@Param("bookId") Long bookId, @Param("copies") int copies, @Param("available") int available);
+
+	/**
+	 * Altera a quantidade de exemplares mantendo os emprestados: falha (devolve 0) se a nova quantidade for menor
+	 * que a de exemplares emprestados.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update BookInventory i set i.available = i.available + (:copies - i.copies), i.copies = :copies "
+			+ "where i.bookId = :bookId and i.copies - i.available <= :copies")
+	int resize(@Param("bookId") Long bookId, @Param("copies") int copies);
+}
@@ -1,8 +1,116 @@
 package br.com.library.model.repositories;
 
+import br.com.library.api.dtos.BookDTO;
 import br.com.library.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
+	/**
+	 * Filtros comuns às buscas de livros: os parâmetros nulos são ignorados, o id é comparado por igualdade e os
+	 * demais devem ser padrões LIKE já em minúsculas, com {@code \\}, {@code %} e {@code _} do termo escapados por
+	 * barra invertida.
+	 */
+	String FILTERS = "(:id is null or b.id = :id)"
+			+ " and (:title is null or lower(b.title) like :title escape '\\')"
+			+ " and (:author is null or lower(b.author) like :author escape '\\')"
+			+ " and (:isbn is null or lower(b.isbn) like :isbn escape '\\')";
+
+	/**
+	 * Resultado guardado no cache de consultas do Hibernate, invalidado a cada escrita na tabela de livros.
+	 */
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
 	boolean existsByIsbn(String isbn);
+
+	/**
+	 * Consulta das faltas do cache de ISBN: o cache de consultas guarda o id encontrado (ou a ausência dele), e o
+	 * livro vem do cache de segundo nível, até a próxima escrita na tabela de livros.
+	 */
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	Optional<Book> findByIsbn(String isbn);
+
+	List<Book> findByIsbnIn(Collection<String> isbns);
+
+	@Query("select b.isbn from Book b where b.isbn in :isbns")
+	Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+	/**
+	 * Percorre os livros que atendem aos {@link #FILTERS} com um cursor forward-only. Não lê nem popula o cache de
+	 * segundo nível.
+	 */
+	@QueryHints({
+			@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = HINT_READONLY, value = "true"),
+			@QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+	})
+	@Query("select b from Book b where " + FILTERS + " order by b.id")
+	Stream<Book> streamAll(@Param("id") Long id, @Param("title") String title, @Param("author") String author, @Param("isbn") String isbn);
+
+	/**
+	 * Projeções de leitura: as linhas vão direto para {@link BookDTO}, sem entidades gerenciadas, snapshots para
+	 * dirty checking nem passagem pelo cache de segundo nível. Sem consulta de contagem, que fica a cargo de quem
+	 * monta a página com {@link #countMatching}. Esta e as demais consultas da listagem abrem a própria transação
+	 * somente leitura (flush manual, sessão sem snapshots), já que o serviço as chama fora de uma transação.
+	 */
+	@Transactional(readOnly = true)
+	@Query("select new br.com.library.api.dtos.BookDTO(b.id, b.title, b.author, b.isbn, b.version) from Book b"
+			+ " where " + FILTERS)
+	List<BookDTO> findDtos(@Param("id") Long id, @Param("title") String title, @Param("author") String author,
+						   @Param("isbn") String isbn, Pageable pageable);
+
+	@Transactional(readOnly = true)
+	@Query("select count(b) from Book b where " + FILTERS)
+	long countMatching(@Param("id") Long id, @Param("title") String title, @Param("author") String author,
+					   @Param("isbn") String isbn);
+
+	/**
+	 * Busca restrita aos ids candidatos informados, com os mesmos {@link #FILTERS}.
+	 */
+	@Query(value = "select b from Book b where b.id in :ids and " + FILTERS,
+			countQuery = "select count(b) from Book b where b.id in :ids and " + FILTERS)
+	Page<Book> findCandidates(@Param("ids") Collection<Long> ids, @Param("id") Long id, @Param("title") String title,
+							  @Param("author") String author, @Param("isbn") String isbn, Pageable pageable);
+
+	/**
+	 * Página por chave (seek): livros com id maior que {@code after}, em ordem de id, sem consulta de contagem.
+	 */
+	@Query("select b from Book b where b.id > :after and " + FILTERS + " order by b.id")
+	Slice<Book> findAfter(@Param("after") Long after, @Param("id") Long id, @Param("title") String title,
+						  @Param("author") String author, @Param("isbn") String isbn, Pageable pageable);
+
+	/**
+	 * Projeção de {@link #findCandidates} em {@link BookDTO}.
+	 */
+	@Transactional(readOnly = true)
+	@Query(value = "select new br.com.library.api.dtos.BookDTO(b.id, b.title, b.author, b.isbn, b.version) from Book b"
+			+ " where b.id in :ids and " + FILTERS,
+			countQuery = "select count(b) from Book b where b.id in :ids and " + FILTERS)
+	Page<BookDTO> findCandidateDtos(@Param("ids") Collection<Long> ids, @Param("id") Long id, @Param("title") String title,
+									@Param("author") String author, @Param("isbn") String isbn, Pageable pageable);
+
+	/**
+	 * Projeção de {@link #findAfter} em {@link BookDTO}.
+	 */
+	@Query("select new br.com.library.api.dtos.BookDTO(b.id, b.title, b.author, b.isbn, b.version) from Book b"
+			+ " where b.id > :after and " + FILTERS + " order by b.id")
+	Slice<BookDTO> findDtosAfter(@Param("after") Long after, @Param("id") Long id, @Param("title") String title,
+								 @Param("author") String author, @Param("isbn") String isbn, Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package br.com.library.model.repositories;
+
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.Loan;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LoanRepository extends JpaRepository<Loan, Long> {
+	long countByBookAndReturnedFalse(Book book);
+}
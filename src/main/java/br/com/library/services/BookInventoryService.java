@@ -0,0 +1,18 @@
+package br.com.library.services;
+
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.BookInventory;
+
+import java.util.Optional;
+
+public interface BookInventoryService {
+	Optional<BookInventory> getByBook(Book book);
+
+	BookInventory setCopies(Book book, int copies);
+
+	/**
+	 * Cadastra o estoque padrão, de um exemplar, para um livro que ainda não tem estoque, em transação própria. Se
+	 * outra requisição cadastrar o estoque do livro ao mesmo tempo, a violação da chave é propagada.
+	 */
+	void createDefault(Book book);
+}
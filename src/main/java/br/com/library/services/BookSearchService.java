@@ -0,0 +1,11 @@
+package br.com.library.services;
+
+import br.com.library.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface BookSearchService {
+	Page<Book> search(String query, Pageable pageRequest);
+
+	void rebuildIndex();
+}
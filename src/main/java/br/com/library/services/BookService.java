@@ -1,21 +1,43 @@
 package br.com.library.services;
 
+import br.com.library.api.dtos.BookDTO;
 import br.com.library.model.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BookService {
 	Book save(Book book);
 
+	List<Book> saveAll(List<Book> books);
+
 	Optional<Book> getById(Long id);
 
+	Map<Long, Book> getByIds(Collection<Long> ids);
+
+	Map<String, Book> getByIsbns(Collection<String> isbns);
+
 	void delete(Book book);
 
 	Book update(Book book);
 
+	Optional<Book> merge(Long id, Consumer<Book> changes);
+
 	Page<Book> find(Book filter, Pageable pageRequest);
 
+	Slice<Book> findAfter(Book filter, Long afterId, int size);
+
+	Page<BookDTO> findDtos(Book filter, Pageable pageRequest);
+
+	Slice<BookDTO> findDtosAfter(Book filter, Long afterId, int size);
+
 	Optional<Book> getBookByIsbn(String isbn);
+
+	void export(Book filter, Consumer<Book> consumer);
 }
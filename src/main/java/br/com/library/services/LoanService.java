@@ -1,7 +1,17 @@
 package br.com.library.services;
 
+import br.com.library.exceptions.BusinessException;
 import br.com.library.model.entity.Loan;
 
+import java.util.List;
+import java.util.function.BiConsumer;
+
 public interface LoanService {
 	Loan save(Loan loan);
+
+	/**
+	 * Grava os empréstimos em uma única transação. Os recusados por regra de negócio ficam de fora e são
+	 * informados, com a exceção de cada um, ao {@code rejected}; os demais são devolvidos já com id.
+	 */
+	List<Loan> saveAll(List<Loan> loans, BiConsumer<Loan, BusinessException> rejected);
 }
@@ -0,0 +1,241 @@
+package br.com.library.services.batch;
+
+import br.com.library.exceptions.BusinessException;
+import br.com.library.model.entity.Loan;
+import br.com.library.services.LoanService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit de empréstimos: com {@code library.loan.batch.enabled}, as requisições simultâneas entram em uma
+ * fila e uma única thread as grava em lotes de até {@code max-size} empréstimos, em uma transação por lote
+ * ({@link LoanService#saveAll}). O lote é gravado quando enche ou quando o primeiro empréstimo dele completa
+ * {@code max-delay} na fila, que é a latência máxima acrescentada a cada requisição.
+ *
+ * <p>Cada chamador recebe o próprio empréstimo ou a própria exceção de negócio. Se a transação do lote falhar
+ * por outro motivo, os empréstimos do lote são gravados de novo um a um, para que a falha de um não derrube os
+ * outros; um {@link Error} falha só os empréstimos do lote, e a thread segue atendendo a fila. Um empréstimo que
+ * passe de {@code max-delay} mais {@code timeout} ainda na fila é retirado dela e gravado direto; o que já entrou em
+ * um lote espera o resultado do lote, limitado pelo timeout da transação de {@link LoanService#saveAll}, para que o
+ * chamador nunca receba erro de um empréstimo gravado. Desabilitado, ou sem a thread em execução, {@link #save}
+ * apenas repassa para {@link LoanService#save}.
+ *
+ * <p>A thread acompanha o ciclo de vida do contexto ({@link SmartLifecycle}): começa no {@link #start} e, no
+ * {@link #stop}, deixa de aceitar empréstimos e grava os que já estavam na fila.
+ *
+ * <p>O tamanho dos lotes é publicado em {@value #METRIC} e os empréstimos na fila em {@value #PENDING_METRIC}.
+ */
+@Component
+public class LoanBatcher implements MeterBinder, SmartLifecycle {
+
+	public static final String METRIC = "library.loan.batch.size";
+	public static final String PENDING_METRIC = "library.loan.batch.pending";
+
+	private final LoanService loanService;
+	private final boolean enabled;
+	private final int maxSize;
+	private final long maxDelay;
+	private final long timeout;
+	private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+	private volatile Thread worker;
+	private volatile boolean closed;
+	private volatile DistributionSummary batchSizes;
+
+	public LoanBatcher(LoanService loanService,
+					   @Value("${library.loan.batch.enabled:false}") boolean enabled,
+					   @Value("${library.loan.batch.max-size:50}") int maxSize,
+					   @Value("${library.loan.batch.max-delay:2ms}") Duration maxDelay,
+					   @Value("${library.loan.batch.timeout:10s}") Duration timeout) {
+		this.loanService = loanService;
+		this.enabled = enabled;
+		this.maxSize = maxSize;
+		this.maxDelay = maxDelay.toNanos();
+		this.timeout = timeout.toNanos();
+	}
+
+	public Loan save(Loan loan) {
+		if (!accepting()) {
+			return loanService.save(loan);
+		}
+		Request request = new Request(loan);
+		queue.add(request);
+		if (!accepting() && queue.remove(request)) {
+			return loanService.save(loan);
+		}
+		return await(request);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		batchSizes = DistributionSummary.builder(METRIC)
+				.description("Empréstimos gravados por transação no group commit")
+				.baseUnit("loans")
+				.register(registry);
+		Gauge.builder(PENDING_METRIC, queue, BlockingQueue::size)
+				.description("Empréstimos aguardando o próximo lote")
+				.register(registry);
+	}
+
+	@Override
+	public synchronized void start() {
+		if (!enabled || isRunning()) {
+			return;
+		}
+		closed = false;
+		Thread thread = new Thread(this::run, "loan-batcher");
+		thread.setDaemon(true);
+		thread.start();
+		worker = thread;
+	}
+
+	/**
+	 * Para de aceitar empréstimos na fila e espera a thread gravar os que já estavam nela.
+	 */
+	@Override
+	public synchronized void stop() {
+		closed = true;
+		Thread thread = worker;
+		if (thread == null) {
+			return;
+		}
+		thread.interrupt();
+		try {
+			thread.join(TimeUnit.SECONDS.toMillis(30));
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+		worker = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		Thread thread = worker;
+		return thread != null && thread.isAlive();
+	}
+
+	private boolean accepting() {
+		return enabled && !closed && isRunning();
+	}
+
+	private void run() {
+		List<Request> batch = new ArrayList<>(maxSize);
+		try {
+			while (!closed) {
+				batch.add(queue.take());
+				long deadline = System.nanoTime() + maxDelay;
+				while (batch.size() < maxSize) {
+					Request next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				flush(batch);
+				batch.clear();
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+		queue.drainTo(batch);
+		for (int start = 0; start < batch.size(); start += maxSize) {
+			flush(batch.subList(start, Math.min(start + maxSize, batch.size())));
+		}
+	}
+
+	private void flush(List<Request> batch) {
+		DistributionSummary summary = batchSizes;
+		if (summary != null) {
+			summary.record(batch.size());
+		}
+		List<Loan> loans = new ArrayList<>(batch.size());
+		batch.forEach(request -> loans.add(request.loan));
+		Map<Loan, BusinessException> rejected = new IdentityHashMap<>();
+		try {
+			loanService.saveAll(loans, rejected::put);
+		} catch (RuntimeException exception) {
+			batch.forEach(this::saveAlone);
+			return;
+		} catch (Throwable error) {
+			batch.forEach(request -> request.result.completeExceptionally(error));
+			return;
+		}
+		for (Request request : batch) {
+			BusinessException exception = rejected.get(request.loan);
+			if (exception == null) {
+				request.result.complete(request.loan);
+			} else {
+				request.result.completeExceptionally(exception);
+			}
+		}
+	}
+
+	private void saveAlone(Request request) {
+		request.loan.setId(null);
+		try {
+			request.result.complete(loanService.save(request.loan));
+		} catch (Throwable exception) {
+			request.result.completeExceptionally(exception);
+		}
+	}
+
+	/**
+	 * Só desiste de um empréstimo que ainda está na fila; o que a thread já tirou dela pode ser gravado pelo lote,
+	 * então o chamador espera o resultado.
+	 */
+	private Loan await(Request request) {
+		try {
+			return request.result.get(maxDelay + timeout, TimeUnit.NANOSECONDS);
+		} catch (ExecutionException exception) {
+			throw rethrow(exception.getCause());
+		} catch (TimeoutException exception) {
+			if (queue.remove(request)) {
+				return loanService.save(request.loan);
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			if (queue.remove(request)) {
+				throw new IllegalStateException("Interrompido aguardando o lote do empréstimo.", exception);
+			}
+		}
+		try {
+			return request.result.join();
+		} catch (CompletionException exception) {
+			throw rethrow(exception.getCause());
+		}
+	}
+
+	private static RuntimeException rethrow(Throwable cause) {
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+	}
+
+	private static class Request {
+
+		private final Loan loan;
+		private final CompletableFuture<Loan> result = new CompletableFuture<>();
+
+		Request(Loan loan) {
+			this.loan = loan;
+		}
+	}
+}
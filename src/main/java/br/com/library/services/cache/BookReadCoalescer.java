@@ -0,0 +1,94 @@
+package br.com.library.services.cache;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.model.entity.Book;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa leituras idênticas e simultâneas de livros ({@link SingleFlight}) por id, por ISBN e por filtro e página,
+ * para que um pico de requisições pelo mesmo livro ou pela mesma busca resulte em uma única ida ao banco.
+ * Os livros entregues a quem esperou são cópias, já que o chamador pode alterá-los.
+ *
+ * <p>Todas as leituras também são agrupadas pela versão do acervo ({@link BookVersionCache#catalogVersion}): uma
+ * chamada feita depois de uma escrita confirmada não aproveita uma consulta iniciada antes dela, que poderia devolver
+ * a página antiga sob a ETag da versão nova, ou o livro com a versão antiga a quem vai alterá-lo com If-Match.
+ *
+ * <p>As chamadas atendidas por outra execução são publicadas no contador {@value #METRIC}, com a tag
+ * {@code operation}; as que foram ao banco, em {@value #EXECUTIONS_METRIC}.
+ */
+@Component
+public class BookReadCoalescer implements MeterBinder {
+
+	public static final String METRIC = "library.single-flight.deduplicated";
+	public static final String EXECUTIONS_METRIC = "library.single-flight.executions";
+
+	private final BookVersionCache versions;
+	private final boolean enabled;
+	private final SingleFlight<List<Object>, Optional<Book>> byId = new SingleFlight<>(book -> book.map(BookReadCoalescer::copy));
+	private final SingleFlight<List<Object>, Optional<Book>> byIsbn = new SingleFlight<>(book -> book.map(BookReadCoalescer::copy));
+	private final SingleFlight<List<Object>, Page<Book>> find = new SingleFlight<>(page -> page.map(BookReadCoalescer::copy));
+	private final SingleFlight<List<Object>, Page<BookDTO>> findDtos = new SingleFlight<>(page -> page.map(dto -> dto.toBuilder().build()));
+
+	public BookReadCoalescer(BookVersionCache versions, @Value("${library.single-flight.enabled:true}") boolean enabled) {
+		this.versions = versions;
+		this.enabled = enabled;
+	}
+
+	public Optional<Book> getById(Long id, Supplier<Optional<Book>> loader) {
+		return enabled && id != null ? byId.execute(Arrays.asList(id, versions.catalogVersion()), loader) : loader.get();
+	}
+
+	public Optional<Book> getByIsbn(String isbn, Supplier<Optional<Book>> loader) {
+		return enabled && isbn != null ? byIsbn.execute(Arrays.asList(isbn, versions.catalogVersion()), loader) : loader.get();
+	}
+
+	public Page<Book> find(Book filter, Pageable pageRequest, Supplier<Page<Book>> loader) {
+		return enabled ? find.execute(key(filter, pageRequest, versions.catalogVersion()), loader) : loader.get();
+	}
+
+	public Page<BookDTO> findDtos(Book filter, Pageable pageRequest, Supplier<Page<BookDTO>> loader) {
+		return enabled ? findDtos.execute(key(filter, pageRequest, versions.catalogVersion()), loader) : loader.get();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		bind(registry, "getById", byId);
+		bind(registry, "getBookByIsbn", byIsbn);
+		bind(registry, "find", find);
+		bind(registry, "findDtos", findDtos);
+	}
+
+	private static void bind(MeterRegistry registry, String operation, SingleFlight<?, ?> flight) {
+		FunctionCounter.builder(METRIC, flight, SingleFlight::deduplicated)
+				.description("Leituras de livros atendidas por uma chamada idêntica já em andamento")
+				.tag("operation", operation)
+				.register(registry);
+		FunctionCounter.builder(EXECUTIONS_METRIC, flight, SingleFlight::executions)
+				.description("Leituras de livros que foram ao banco")
+				.tag("operation", operation)
+				.register(registry);
+	}
+
+	/**
+	 * A chave copia os campos do filtro: o chamador pode alterar o objeto enquanto a chamada está em andamento.
+	 */
+	private static List<Object> key(Book filter, Pageable pageRequest, String catalogVersion) {
+		return Arrays.asList(filter.getId(), filter.getTitle(), filter.getAuthor(), filter.getIsbn(), filter.getVersion(),
+				pageRequest, catalogVersion);
+	}
+
+	private static Book copy(Book book) {
+		return book.toBuilder().build();
+	}
+}
@@ -0,0 +1,60 @@
+package br.com.library.services.cache;
+
+import br.com.library.model.entity.Book;
+import br.com.library.services.events.BookChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão conhecida de cada livro, para responder requisições condicionais sem ir ao banco, e uma versão do acervo
+ * como um todo, que muda a cada escrita publicada em {@link BookChangedEvent}.
+ *
+ * <p>As versões só avançam: uma leitura concorrente que traga uma versão anterior não sobrescreve a atual, e um livro
+ * excluído fica marcado até ser removido pelo limite de tamanho. A versão do acervo leva um prefixo gerado na
+ * inicialização, para que ETags emitidas antes de um restart não voltem a valer.
+ */
+@Component
+public class BookVersionCache {
+
+	private static final Long DELETED = Long.MAX_VALUE;
+
+	private final Cache<Long, Long> versions;
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong catalogVersion = new AtomicLong();
+
+	public BookVersionCache(@Value("${library.cache.book-version.maximum-size:100000}") long maximumSize) {
+		this.versions = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.executor(Runnable::run)
+				.build();
+	}
+
+	public Optional<Long> get(Long id) {
+		Long version = id == null ? null : versions.getIfPresent(id);
+		return version == null || DELETED.equals(version) ? Optional.empty() : Optional.of(version);
+	}
+
+	public void put(Long id, Long version) {
+		if (id != null && version != null) {
+			versions.asMap().merge(id, version, Math::max);
+		}
+	}
+
+	public String catalogVersion() {
+		return epoch + "-" + catalogVersion.get();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookChanged(BookChangedEvent event) {
+		catalogVersion.incrementAndGet();
+		for (Book book : event.getBooks()) {
+			put(book.getId(), event.getType() == BookChangedEvent.Type.DELETED ? DELETED : book.getVersion());
+		}
+	}
+}
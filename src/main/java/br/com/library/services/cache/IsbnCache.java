@@ -0,0 +1,163 @@
+package br.com.library.services.cache;
+
+import br.com.library.services.events.BookChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache em memória de ISBN para id do livro, com tamanho limitado (eviction W-TinyLFU do Caffeine)
+ * e cache negativo para ISBNs inexistentes, que expiram antes das entradas positivas.
+ * As estatísticas são publicadas como métricas {@code cache.*} com a tag {@code cache=isbn}.
+ *
+ * <p>Livros cadastrados entram no cache só depois do commit ({@link #onBookChanged}): um ISBN recusado pelo índice
+ * único no commit não fica apontando para um id que não existe.
+ */
+@Component
+public class IsbnCache implements MeterBinder {
+
+	private static final Long NOT_FOUND = -1L;
+
+	private final Cache<String, Long> cache;
+	private final Map<Long, String> isbnById = new ConcurrentHashMap<>();
+
+	public IsbnCache(@Value("${library.cache.isbn.maximum-size:100000}") long maximumSize,
+					 @Value("${library.cache.isbn.ttl:PT1H}") Duration ttl,
+					 @Value("${library.cache.isbn.negative-ttl:PT30S}") Duration negativeTtl) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new IsbnExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+				.executor(Runnable::run)
+				.removalListener((String isbn, Long id, RemovalCause cause) -> {
+					if (id != null && !NOT_FOUND.equals(id)) {
+						isbnById.remove(id, isbn);
+					}
+				})
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Retorna o id do livro com o ISBN informado, consultando o loader apenas em caso de miss.
+	 * O resultado do loader é armazenado mesmo quando vazio.
+	 */
+	public Optional<Long> getId(String isbn, Function<String, Optional<Long>> loader) {
+		if (isbn == null) {
+			return loader.apply(null);
+		}
+		Long id = cache.get(isbn, key -> loader.apply(key).orElse(NOT_FOUND));
+		if (!NOT_FOUND.equals(id)) {
+			isbnById.put(id, isbn);
+		}
+		return NOT_FOUND.equals(id) ? Optional.empty() : Optional.ofNullable(id);
+	}
+
+	/**
+	 * Versão em lote de {@link #getId}: o loader recebe de uma vez todos os ISBNs ausentes do cache e devolve os
+	 * ids que encontrar; os demais ficam no cache negativo. O retorno contém apenas os ISBNs existentes.
+	 */
+	public Map<String, Long> getIds(Collection<String> isbns, Function<Set<String>, Map<String, Long>> loader) {
+		Map<String, Long> ids = cache.getAll(isbns, missing -> {
+			Set<String> keys = new HashSet<>();
+			missing.forEach(keys::add);
+			Map<String, Long> loaded = new HashMap<>(loader.apply(keys));
+			keys.forEach(isbn -> loaded.putIfAbsent(isbn, NOT_FOUND));
+			return loaded;
+		});
+		Map<String, Long> found = new HashMap<>();
+		ids.forEach((isbn, id) -> {
+			if (!NOT_FOUND.equals(id)) {
+				isbnById.put(id, isbn);
+				found.put(isbn, id);
+			}
+		});
+		return found;
+	}
+
+	public void put(String isbn, Long id) {
+		if (isbn != null && id != null) {
+			cache.put(isbn, id);
+			isbnById.put(id, isbn);
+		}
+	}
+
+	public void invalidate(String isbn) {
+		if (isbn != null) {
+			cache.invalidate(isbn);
+		}
+	}
+
+	/**
+	 * Remove a entrada do livro com o id informado; usado quando o ISBN atual do livro não é conhecido.
+	 */
+	public void invalidateId(Long id) {
+		String isbn = id == null ? null : isbnById.get(id);
+		if (isbn != null) {
+			cache.invalidate(isbn);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookChanged(BookChangedEvent event) {
+		if (event.getType() == BookChangedEvent.Type.SAVED) {
+			event.getBooks().forEach(book -> put(book.getIsbn(), book.getId()));
+		}
+	}
+
+	public long size() {
+		return cache.estimatedSize();
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "isbn");
+	}
+
+	private static class IsbnExpiry implements Expiry<String, Long> {
+
+		private final long ttl;
+		private final long negativeTtl;
+
+		IsbnExpiry(long ttl, long negativeTtl) {
+			this.ttl = ttl;
+			this.negativeTtl = negativeTtl;
+		}
+
+		@Override
+		public long expireAfterCreate(String isbn, Long id, long currentTime) {
+			return NOT_FOUND.equals(id) ? negativeTtl : ttl;
+		}
+
+		@Override
+		public long expireAfterUpdate(String isbn, Long id, long currentTime, long currentDuration) {
+			return expireAfterCreate(isbn, id, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String isbn, Long id, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
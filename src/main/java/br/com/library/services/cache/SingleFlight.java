@@ -0,0 +1,79 @@
+package br.com.library.services.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Agrupa chamadas concorrentes com a mesma chave em uma única execução: a primeira chamada executa o loader e as
+ * que chegam enquanto ela está em andamento esperam e recebem o mesmo resultado (ou a mesma exceção). Nada é
+ * guardado depois que a execução termina; a próxima chamada com a chave executa o loader de novo.
+ *
+ * <p>Como o resultado é compartilhado entre threads, quem esperou recebe uma cópia feita pelo {@code copier}, e só
+ * a chamada que executou o loader fica com o objeto original.
+ */
+public class SingleFlight<K, V> {
+
+	private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final UnaryOperator<V> copier;
+	private final LongAdder executions = new LongAdder();
+	private final LongAdder deduplicated = new LongAdder();
+
+	public SingleFlight(UnaryOperator<V> copier) {
+		this.copier = copier;
+	}
+
+	public V execute(K key, Supplier<V> loader) {
+		CompletableFuture<V> call = new CompletableFuture<>();
+		CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+		if (running != null) {
+			deduplicated.increment();
+			V value = await(running);
+			return value == null ? null : copier.apply(value);
+		}
+		executions.increment();
+		try {
+			V value = loader.get();
+			call.complete(value);
+			return value;
+		} catch (RuntimeException | Error exception) {
+			call.completeExceptionally(exception);
+			throw exception;
+		} finally {
+			inFlight.remove(key, call);
+		}
+	}
+
+	/**
+	 * Chamadas que executaram o loader.
+	 */
+	public long executions() {
+		return executions.sum();
+	}
+
+	/**
+	 * Chamadas atendidas pela execução de outra chamada com a mesma chave.
+	 */
+	public long deduplicated() {
+		return deduplicated.sum();
+	}
+
+	private static <V> V await(CompletableFuture<V> running) {
+		try {
+			return running.join();
+		} catch (CompletionException exception) {
+			Throwable cause = exception.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw exception;
+		}
+	}
+}
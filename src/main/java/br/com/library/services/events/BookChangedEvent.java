@@ -0,0 +1,24 @@
+package br.com.library.services.events;
+
+import br.com.library.model.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Publicado pelo serviço de livros a cada escrita, para manter índices e caches derivados em sincronia.
+ * Quando a escrita ocorre dentro de uma transação, os listeners são executados após o commit.
+ */
+@Getter
+@AllArgsConstructor
+public class BookChangedEvent {
+
+	public enum Type {
+		SAVED, UPDATED, DELETED
+	}
+
+	private final Type type;
+	private final List<Book> books;
+
+}
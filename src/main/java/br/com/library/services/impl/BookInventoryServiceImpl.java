@@ -0,0 +1,72 @@
+package br.com.library.services.impl;
+
+import br.com.library.exceptions.BusinessException;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.BookInventory;
+import br.com.library.model.repositories.BookInventoryRepository;
+import br.com.library.model.repositories.LoanRepository;
+import br.com.library.services.BookInventoryService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+public class BookInventoryServiceImpl implements BookInventoryService {
+	private static final String TOO_FEW_COPIES = "Há mais exemplares emprestados que a quantidade informada.";
+	private static final int DEFAULT_COPIES = 1;
+
+	private final BookInventoryRepository repository;
+	private final LoanRepository loanRepository;
+
+	public BookInventoryServiceImpl(BookInventoryRepository repository, LoanRepository loanRepository) {
+		this.repository = repository;
+		this.loanRepository = loanRepository;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<BookInventory> getByBook(Book book) {
+		return repository.findById(book.getId());
+	}
+
+	/**
+	 * Define quantos exemplares o livro tem. No primeiro cadastro, os empréstimos em aberto já contam como
+	 * exemplares emprestados; depois disso o saldo é ajustado pela diferença, no mesmo UPDATE que troca a
+	 * quantidade, sem perder reservas concorrentes.
+	 */
+	@Override
+	@Transactional
+	public BookInventory setCopies(Book book, int copies) {
+		if (copies < 0) {
+			throw new BusinessException("A quantidade de exemplares não pode ser negativa.");
+		}
+		if (repository.resize(book.getId(), copies) == 1) {
+			return repository.findById(book.getId()).orElseThrow(IllegalStateException::new);
+		}
+		if (repository.existsById(book.getId())) {
+			throw new BusinessException(TOO_FEW_COPIES);
+		}
+		long onLoan = loanRepository.countByBookAndReturnedFalse(book);
+		if (onLoan > copies) {
+			throw new BusinessException(TOO_FEW_COPIES);
+		}
+		return repository.save(BookInventory.builder()
+				.bookId(book.getId())
+				.copies(copies)
+				.available((int) (copies - onLoan))
+				.build());
+	}
+
+	/**
+	 * Os empréstimos em aberto contam como exemplares emprestados; se já houver mais de um, a quantidade acompanha.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public void createDefault(Book book) {
+		long onLoan = loanRepository.countByBookAndReturnedFalse(book);
+		int copies = (int) Math.max(DEFAULT_COPIES, onLoan);
+		repository.insert(book.getId(), copies, (int) (copies - onLoan));
+	}
+}
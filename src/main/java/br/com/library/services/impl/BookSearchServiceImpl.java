@@ -0,0 +1,82 @@
+package br.com.library.services.impl;
+
+import br.com.library.model.entity.Book;
+import br.com.library.model.repositories.BookRepository;
+import br.com.library.services.BookSearchService;
+import br.com.library.services.BookService;
+import br.com.library.services.search.BookNgramIndex;
+import br.com.library.services.search.BookSearchIndex;
+import br.com.library.services.search.BookSearchResult;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class BookSearchServiceImpl implements BookSearchService {
+	private final BookSearchIndex index;
+	private final BookNgramIndex ngramIndex;
+	private final BookRepository repository;
+	private final BookService bookService;
+
+	public BookSearchServiceImpl(BookSearchIndex index, BookNgramIndex ngramIndex, BookRepository repository,
+								 BookService bookService) {
+		this.index = index;
+		this.ngramIndex = ngramIndex;
+		this.repository = repository;
+		this.bookService = bookService;
+	}
+
+	@Override
+	public Page<Book> search(String query, Pageable pageRequest) {
+		BookSearchResult result;
+		try {
+			result = index.search(query, (int) pageRequest.getOffset(), pageRequest.getPageSize());
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		if (result.getIds().isEmpty()) {
+			return new PageImpl<>(Collections.emptyList(), pageRequest, result.getTotalHits());
+		}
+		Map<Long, Book> books = repository.findAllById(result.getIds())
+				.stream()
+				.collect(Collectors.toMap(Book::getId, Function.identity()));
+		List<Book> ranked = result.getIds().stream()
+				.map(books::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+		return new PageImpl<>(ranked, pageRequest, result.getTotalHits());
+	}
+
+	/**
+	 * Recria os índices na inicialização quando eles não correspondem ao acervo, como ocorre sempre com os
+	 * índices em memória. O índice textual também é recriado quando não veio de um encerramento normal, já que
+	 * alterações não gravadas antes de uma queda não mudam necessariamente a quantidade de documentos.
+	 */
+	@Override
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildIndex() {
+		long count = repository.count();
+		try {
+			if (!index.isClosedCleanly() || index.size() != count) {
+				index.rebuild(consumer -> bookService.export(new Book(), consumer));
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		if (ngramIndex.isEnabled() && ngramIndex.size() != count) {
+			ngramIndex.rebuild(consumer -> bookService.export(new Book(), consumer));
+		}
+	}
+}
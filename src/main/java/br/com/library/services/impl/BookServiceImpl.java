@@ -1,36 +1,182 @@
 package br.com.library.services.impl;
 
+import br.com.library.api.dtos.BookDTO;
 import br.com.library.exceptions.BusinessException;
 import br.com.library.model.entity.Book;
 import br.com.library.model.repositories.BookRepository;
 import br.com.library.services.BookService;
+import br.com.library.services.cache.BookReadCoalescer;
+import br.com.library.services.cache.IsbnCache;
+import br.com.library.services.events.BookChangedEvent;
+import br.com.library.services.search.BookNgramIndex;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookServiceImpl implements BookService {
+	private static final String ISBN_CONSTRAINT = "ux_book_isbn";
+
 	private final BookRepository repository;
+	private final IsbnCache isbnCache;
+	private final EntityManager entityManager;
+	private final ApplicationEventPublisher eventPublisher;
+	private final BookNgramIndex ngramIndex;
+	private final BookReadCoalescer coalescer;
+	private final int maxUpdateRetries;
+	private final int lookupChunkSize;
 
-	public BookServiceImpl(BookRepository repository) {
+	public BookServiceImpl(BookRepository repository, IsbnCache isbnCache, EntityManager entityManager,
+						   ApplicationEventPublisher eventPublisher, BookNgramIndex ngramIndex, BookReadCoalescer coalescer,
+						   @Value("${library.update.max-retries:3}") int maxUpdateRetries,
+						   @Value("${library.lookup.chunk-size:100}") int lookupChunkSize) {
 		this.repository = repository;
+		this.isbnCache = isbnCache;
+		this.entityManager = entityManager;
+		this.eventPublisher = eventPublisher;
+		this.ngramIndex = ngramIndex;
+		this.coalescer = coalescer;
+		this.maxUpdateRetries = maxUpdateRetries;
+		this.lookupChunkSize = lookupChunkSize;
 	}
 
+	/**
+	 * A unicidade do ISBN é garantida pelo índice único {@value #ISBN_CONSTRAINT}, sem consulta prévia: o insert
+	 * é enviado ao banco na hora e a violação do índice vira o erro de negócio de ISBN duplicado, inclusive quando
+	 * duas requisições concorrentes cadastram o mesmo ISBN. O cache de ISBN recebe o livro pelo
+	 * {@link BookChangedEvent}, depois do commit.
+	 */
 	@Override
 	public Book save(Book book) {
-		if (repository.existsByIsbn(book.getIsbn())) {
-			throw new BusinessException("ISBN já cadastrado.");
+		Book savedBook;
+		try {
+			savedBook = repository.saveAndFlush(book);
+		} catch (DataIntegrityViolationException exception) {
+			if (violates(exception, ISBN_CONSTRAINT)) {
+				throw new BusinessException("ISBN já cadastrado.");
+			}
+			throw exception;
+		}
+		publish(BookChangedEvent.Type.SAVED, Collections.singletonList(savedBook));
+		return savedBook;
+	}
+
+	/**
+	 * Salva os livros em uma única transação, com inserts em lote. Livros cujo ISBN já existe na base,
+	 * ou que se repete dentro da própria lista, são ignorados e não constam no retorno. Os inserts vão ao banco
+	 * antes do retorno, para que um ISBN cadastrado por outra requisição depois da verificação vire o mesmo erro de
+	 * negócio de {@link #save}; o cache de ISBN só recebe os livros depois do commit.
+	 */
+	@Override
+	@Transactional
+	public List<Book> saveAll(List<Book> books) {
+		Set<String> isbns = books.stream().map(Book::getIsbn).filter(Objects::nonNull).collect(Collectors.toSet());
+		Set<String> knownIsbns = isbns.isEmpty() ? new HashSet<>() : new HashSet<>(repository.findExistingIsbns(isbns));
+		List<Book> newBooks = books.stream().filter(book -> knownIsbns.add(book.getIsbn())).collect(Collectors.toList());
+
+		List<Book> savedBooks;
+		try {
+			savedBooks = repository.saveAll(newBooks);
+			repository.flush();
+		} catch (DataIntegrityViolationException exception) {
+			if (violates(exception, ISBN_CONSTRAINT)) {
+				throw new BusinessException("ISBN já cadastrado.");
+			}
+			throw exception;
 		}
-		return repository.save(book);
+		publish(BookChangedEvent.Type.SAVED, savedBooks);
+		return savedBooks;
 	}
 
 	@Override
 	public Optional<Book> getById(Long id) {
-		return repository.findById(id);
+		return coalescer.getById(id, () -> repository.findById(id));
+	}
+
+	/**
+	 * Carrega vários livros de uma vez: primeiro do contexto de persistência e do cache de segundo nível, e os
+	 * restantes com consultas {@code IN} de até {@code library.lookup.chunk-size} ids. Ids inexistentes ficam
+	 * fora do mapa.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Map<Long, Book> getByIds(Collection<Long> ids) {
+		List<Long> keys = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+		if (keys.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		List<Book> books = entityManager.unwrap(Session.class)
+				.byMultipleIds(Book.class)
+				.with(CacheMode.NORMAL)
+				.enableSessionCheck(true)
+				.withBatchSize(lookupChunkSize)
+				.enableOrderedReturn(false)
+				.multiLoad(keys);
+		return books.stream().filter(Objects::nonNull).collect(Collectors.toMap(Book::getId, Function.identity()));
+	}
+
+	/**
+	 * Resolve os ISBNs pelo cache de ISBN e carrega os livros por {@link #getByIds}; os ISBNs ausentes do cache
+	 * são consultados em lotes de até {@code library.lookup.chunk-size}. ISBNs inexistentes ficam fora do mapa.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Map<String, Book> getByIsbns(Collection<String> isbns) {
+		Set<String> keys = isbns.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+		Map<String, Long> ids = isbnCache.getIds(keys, missing -> findByIsbns(missing).stream()
+				.collect(Collectors.toMap(Book::getIsbn, Book::getId)));
+		Map<Long, Book> booksById = getByIds(ids.values());
+
+		Map<String, Book> books = new HashMap<>();
+		Set<String> stale = new HashSet<>();
+		ids.forEach((isbn, id) -> {
+			Book book = booksById.get(id);
+			if (book != null && isbn.equals(book.getIsbn())) {
+				books.put(isbn, book);
+			} else {
+				isbnCache.invalidate(isbn);
+				stale.add(isbn);
+			}
+		});
+		for (Book book : findByIsbns(stale)) {
+			isbnCache.put(book.getIsbn(), book.getId());
+			books.put(book.getIsbn(), book);
+		}
+		return books;
 	}
 
 	@Override
@@ -39,6 +185,9 @@ public class BookServiceImpl implements BookService {
 			throw new IllegalArgumentException("Book não pode estar nulo");
 		}
 		this.repository.delete(book);
+		isbnCache.invalidateId(book.getId());
+		isbnCache.invalidate(book.getIsbn());
+		publish(BookChangedEvent.Type.DELETED, Collections.singletonList(book));
 	}
 
 	@Override
@@ -46,18 +195,189 @@ public class BookServiceImpl implements BookService {
 		if (book == null || book.getId() == null) {
 			throw new IllegalArgumentException("Book não pode estar nulo");
 		}
-		return this.repository.save(book);
+		isbnCache.invalidateId(book.getId());
+		Book updatedBook = this.repository.save(book);
+		isbnCache.put(updatedBook.getIsbn(), updatedBook.getId());
+		publish(BookChangedEvent.Type.UPDATED, Collections.singletonList(updatedBook));
+		return updatedBook;
 	}
 
+	/**
+	 * Aplica as alterações sobre a versão atual do livro e salva. Se outra escrita vencer a corrida (conflito de
+	 * versão), relê o livro e reaplica as alterações, até {@code library.update.max-retries} vezes; esgotadas as
+	 * tentativas, o conflito é propagado. Só deve ser usado com alterações idempotentes, que possam ser reaplicadas
+	 * sobre qualquer versão, como atribuir valores a campos.
+	 */
+	@Override
+	public Optional<Book> merge(Long id, Consumer<Book> changes) {
+		for (int attempt = 0; ; attempt++) {
+			Optional<Book> book = repository.findById(id);
+			if (!book.isPresent()) {
+				return Optional.empty();
+			}
+			changes.accept(book.get());
+			try {
+				return Optional.of(update(book.get()));
+			} catch (OptimisticLockingFailureException exception) {
+				if (attempt >= maxUpdateRetries) {
+					throw exception;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Quando o índice de trigramas está habilitado e consegue restringir os filtros de título e autor,
+	 * consulta apenas os livros candidatos; caso contrário, usa a busca por exemplo sobre toda a tabela, que também
+	 * considera o id e a versão do filtro.
+	 */
 	@Override
 	public Page<Book> find(Book filter, Pageable pageRequest) {
-		Example<Book> example = Example.of(filter, ExampleMatcher.matching()
-				.withIgnoreCase().withIgnoreNullValues().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-		return repository.findAll(example, pageRequest);
+		return coalescer.find(filter, pageRequest, () -> doFind(filter, pageRequest));
+	}
+
+	private Page<Book> doFind(Book filter, Pageable pageRequest) {
+		long[] candidates = ngramIndex.candidates(filter.getTitle(), filter.getAuthor());
+		if (candidates != null) {
+			if (candidates.length == 0) {
+				return new PageImpl<>(Collections.emptyList(), pageRequest, 0);
+			}
+			List<Long> ids = Arrays.stream(candidates).boxed().collect(Collectors.toList());
+			return repository.findCandidates(ids, filter.getId(),
+					containing(filter.getTitle()), containing(filter.getAuthor()), containing(filter.getIsbn()), pageRequest);
+		}
+		return repository.findAll(matching(filter), pageRequest);
+	}
+
+	@Override
+	public Slice<Book> findAfter(Book filter, Long afterId, int size) {
+		return repository.findAfter(afterId == null ? 0L : afterId, filter.getId(),
+				containing(filter.getTitle()), containing(filter.getAuthor()), containing(filter.getIsbn()),
+				PageRequest.of(0, size));
+	}
+
+	/**
+	 * Busca paginada projetada direto em {@link BookDTO}, para as listagens que só devolvem os dados ao cliente.
+	 * Quando o índice de trigramas está habilitado e consegue restringir os filtros de título e autor, consulta
+	 * apenas os livros candidatos. A contagem usa os mesmos filtros da consulta e é dispensada quando a página já
+	 * revela o total. Cada consulta roda na sua própria transação somente leitura, declarada no repositório, e não
+	 * numa transação do método todo: quem espera por uma chamada idêntica no {@link BookReadCoalescer} não abre
+	 * transação nem segura uma conexão.
+	 */
+	@Override
+	public Page<BookDTO> findDtos(Book filter, Pageable pageRequest) {
+		return coalescer.findDtos(filter, pageRequest, () -> doFindDtos(filter, pageRequest));
+	}
+
+	private Page<BookDTO> doFindDtos(Book filter, Pageable pageRequest) {
+		long[] candidates = ngramIndex.candidates(filter.getTitle(), filter.getAuthor());
+		if (candidates != null) {
+			if (candidates.length == 0) {
+				return new PageImpl<>(Collections.emptyList(), pageRequest, 0);
+			}
+			List<Long> ids = Arrays.stream(candidates).boxed().collect(Collectors.toList());
+			return repository.findCandidateDtos(ids, filter.getId(),
+					containing(filter.getTitle()), containing(filter.getAuthor()), containing(filter.getIsbn()), pageRequest);
+		}
+		List<BookDTO> content = repository.findDtos(filter.getId(),
+				containing(filter.getTitle()), containing(filter.getAuthor()), containing(filter.getIsbn()), pageRequest);
+		return PageableExecutionUtils.getPage(content, pageRequest, () -> repository.countMatching(filter.getId(),
+				containing(filter.getTitle()), containing(filter.getAuthor()), containing(filter.getIsbn())));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<BookDTO> findDtosAfter(Book filter, Long afterId, int size) {
+		return repository.findDtosAfter(afterId == null ? 0L : afterId, filter.getId(),
+				containing(filter.getTitle()), containing(filter.getAuthor()), containing(filter.getIsbn()),
+				PageRequest.of(0, size));
 	}
 
 	@Override
 	public Optional<Book> getBookByIsbn(String isbn) {
-		return null;
+		if (isbn == null) {
+			return Optional.empty();
+		}
+		return coalescer.getByIsbn(isbn, () -> loadByIsbn(isbn));
+	}
+
+	private Optional<Book> loadByIsbn(String isbn) {
+		AtomicReference<Book> loadedBook = new AtomicReference<>();
+		Optional<Long> id = isbnCache.getId(isbn, key -> repository.findByIsbn(key).map(book -> {
+			loadedBook.set(book);
+			return book.getId();
+		}));
+		if (!id.isPresent() || loadedBook.get() != null) {
+			return Optional.ofNullable(loadedBook.get());
+		}
+		Optional<Book> book = repository.findById(id.get());
+		if (book.isPresent() && isbn.equals(book.get().getIsbn())) {
+			return book;
+		}
+		isbnCache.invalidate(isbn);
+		book = repository.findByIsbn(isbn);
+		book.ifPresent(found -> isbnCache.put(found.getIsbn(), found.getId()));
+		return book;
+	}
+
+	/**
+	 * Entrega ao consumer todos os livros que atendem ao filtro, lidos de um cursor e desanexados
+	 * logo após o uso, de forma que o consumo de memória não depende do tamanho do acervo.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void export(Book filter, Consumer<Book> consumer) {
+		try (Stream<Book> books = repository.streamAll(filter.getId(),
+				containing(filter.getTitle()), containing(filter.getAuthor()), containing(filter.getIsbn()))) {
+			books.forEach(book -> {
+				consumer.accept(book);
+				entityManager.detach(book);
+			});
+		}
+	}
+
+	private static boolean violates(DataIntegrityViolationException exception, String constraint) {
+		for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException) {
+				String name = ((ConstraintViolationException) cause).getConstraintName();
+				return name != null && name.toLowerCase(Locale.ROOT).contains(constraint);
+			}
+		}
+		return false;
+	}
+
+	private void publish(BookChangedEvent.Type type, List<Book> books) {
+		if (!books.isEmpty()) {
+			eventPublisher.publishEvent(new BookChangedEvent(type, books));
+		}
+	}
+
+	private List<Book> findByIsbns(Collection<String> isbns) {
+		List<String> keys = new ArrayList<>(isbns);
+		List<Book> books = new ArrayList<>(keys.size());
+		for (int start = 0; start < keys.size(); start += lookupChunkSize) {
+			books.addAll(repository.findByIsbnIn(keys.subList(start, Math.min(start + lookupChunkSize, keys.size()))));
+		}
+		return books;
+	}
+
+	private static Example<Book> matching(Book filter) {
+		return Example.of(filter, ExampleMatcher.matching()
+				.withIgnoreCase().withIgnoreNullValues().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+	}
+
+	/**
+	 * Padrão LIKE dos {@link BookRepository#FILTERS}: o termo em minúsculas, com os curingas escapados para que
+	 * {@code %} e {@code _} digitados pelo usuário sejam procurados literalmente.
+	 */
+	private static String containing(String value) {
+		if (value == null) {
+			return null;
+		}
+		String escaped = value.toLowerCase(Locale.ROOT)
+				.replace("\\", "\\\\")
+				.replace("%", "\\%")
+				.replace("_", "\\_");
+		return "%" + escaped + "%";
 	}
 }
@@ -0,0 +1,133 @@
+package br.com.library.services.impl;
+
+import br.com.library.exceptions.BusinessException;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.Loan;
+import br.com.library.model.repositories.BookInventoryRepository;
+import br.com.library.model.repositories.LoanRepository;
+import br.com.library.services.BookInventoryService;
+import br.com.library.services.LoanService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Todo empréstimo reserva um exemplar pelo decremento condicional do saldo em {@link BookInventoryRepository}. Um
+ * livro ainda sem estoque ganha o estoque padrão de um exemplar ({@link BookInventoryService#createDefault}) antes da
+ * reserva, em transação própria e fora da transação do empréstimo, para que uma rajada de primeiros empréstimos não
+ * precise de duas conexões por requisição. As transações do empréstimo têm o timeout
+ * {@code library.loan.transaction.timeout}, que também limita a espera de quem está em um lote do {@code LoanBatcher}.
+ */
+@Service
+public class LoanServiceImpl implements LoanService {
+	private static final String ALREADY_LENT = "Livro já emprestado.";
+	private static final String NO_COPY_AVAILABLE = "Nenhum exemplar disponível.";
+
+	private final LoanRepository repository;
+	private final BookInventoryRepository inventoryRepository;
+	private final BookInventoryService inventoryService;
+	private final TransactionTemplate transaction;
+
+	public LoanServiceImpl(LoanRepository repository, BookInventoryRepository inventoryRepository,
+						   BookInventoryService inventoryService, PlatformTransactionManager transactionManager,
+						   @Value("${library.loan.transaction.timeout:10s}") Duration transactionTimeout) {
+		this.repository = repository;
+		this.inventoryRepository = inventoryRepository;
+		this.inventoryService = inventoryService;
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.transaction.setTimeout((int) Math.max(1, transactionTimeout.getSeconds()));
+	}
+
+	/**
+	 * Reserva o exemplar e grava o empréstimo na mesma transação; o INSERT do empréstimo vai no flush do commit,
+	 * então o bloqueio da linha do estoque dura só até ele. Sem exemplar disponível, nada é gravado. Se o livro
+	 * ainda não tem estoque, ele é cadastrado e a reserva é refeita uma vez.
+	 */
+	@Override
+	public Loan save(Loan loan) {
+		Optional<Loan> saved = transaction.execute(status -> reserveAndSave(loan));
+		if (saved.isPresent()) {
+			return saved.get();
+		}
+		createInventory(loan.getBook());
+		return transaction.execute(status -> reserveAndSave(loan))
+				.orElseThrow(() -> new BusinessException(NO_COPY_AVAILABLE));
+	}
+
+	/**
+	 * Mesmas regras de {@link #save}: os livros do lote ainda sem estoque são cadastrados antes, e depois cada
+	 * empréstimo reserva o seu exemplar. Os INSERTs vão juntos no flush do commit, em lotes JDBC.
+	 */
+	@Override
+	public List<Loan> saveAll(List<Loan> loans, BiConsumer<Loan, BusinessException> rejected) {
+		Map<Long, Book> books = new LinkedHashMap<>();
+		loans.forEach(loan -> books.putIfAbsent(loan.getBook().getId(), loan.getBook()));
+		Set<Long> counted = inventoryRepository.findExistingIds(books.keySet());
+		books.forEach((bookId, book) -> {
+			if (!counted.contains(bookId)) {
+				createInventory(book);
+			}
+		});
+		return transaction.execute(status -> reserveAndSaveAll(loans, rejected));
+	}
+
+	/**
+	 * Vazio quando o livro ainda não tem estoque cadastrado.
+	 */
+	private Optional<Loan> reserveAndSave(Loan loan) {
+		Long bookId = loan.getBook().getId();
+		if (inventoryRepository.reserve(bookId) == 0) {
+			if (inventoryRepository.existsById(bookId)) {
+				throw rejection(bookId);
+			}
+			return Optional.empty();
+		}
+		if (loan.getReturned() == null) {
+			loan.setReturned(false);
+		}
+		return Optional.of(repository.save(loan));
+	}
+
+	private List<Loan> reserveAndSaveAll(List<Loan> loans, BiConsumer<Loan, BusinessException> rejected) {
+		List<Loan> accepted = new ArrayList<>(loans.size());
+		for (Loan loan : loans) {
+			Long bookId = loan.getBook().getId();
+			if (inventoryRepository.reserve(bookId) == 0) {
+				rejected.accept(loan, rejection(bookId));
+				continue;
+			}
+			if (loan.getReturned() == null) {
+				loan.setReturned(false);
+			}
+			accepted.add(loan);
+		}
+		return repository.saveAll(accepted);
+	}
+
+	private void createInventory(Book book) {
+		try {
+			inventoryService.createDefault(book);
+		} catch (DataIntegrityViolationException exception) {
+			// outro empréstimo do mesmo livro cadastrou o estoque primeiro
+		}
+	}
+
+	/**
+	 * Livros de exemplar único mantêm a mensagem de livro já emprestado.
+	 */
+	private BusinessException rejection(Long bookId) {
+		boolean single = inventoryRepository.findById(bookId).map(inventory -> inventory.getCopies() == 1).orElse(false);
+		return new BusinessException(single ? ALREADY_LENT : NO_COPY_AVAILABLE);
+	}
+}
@@ -0,0 +1,220 @@
+package br.com.library.services.search;
+
+import br.com.library.model.entity.Book;
+import br.com.library.services.events.BookChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice de trigramas em memória sobre título e autor, usado para resolver filtros de substring
+ * ({@code CONTAINING}) sem varrer a tabela. Os trigramas são codificados em {@code long} e as listas
+ * de ocorrência são {@code long[]} ordenados, sem objetos por ocorrência.
+ * <p>
+ * O índice devolve candidatos: todo livro que contém o termo está entre eles, mas a confirmação da
+ * substring continua sendo feita pela consulta ao banco.
+ */
+@Component
+public class BookNgramIndex {
+
+	private static final int N = 3;
+
+	private final boolean enabled;
+	private final int maxCandidates;
+	private final FieldIndex title = new FieldIndex();
+	private final FieldIndex author = new FieldIndex();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	public BookNgramIndex(@Value("${library.search.ngram.enabled:false}") boolean enabled,
+						  @Value("${library.search.ngram.max-candidates:1000}") int maxCandidates) {
+		this.enabled = enabled;
+		this.maxCandidates = maxCandidates;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookChanged(BookChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			for (Book book : event.getBooks()) {
+				if (event.getType() == BookChangedEvent.Type.DELETED) {
+					title.remove(book.getId());
+					author.remove(book.getId());
+				} else {
+					title.put(book.getId(), book.getTitle());
+					author.put(book.getId(), book.getAuthor());
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Recria o índice a partir dos livros entregues pelo produtor informado.
+	 */
+	public void rebuild(Consumer<Consumer<Book>> books) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			title.clear();
+			author.clear();
+			books.accept(book -> {
+				title.put(book.getId(), book.getTitle());
+				author.put(book.getId(), book.getAuthor());
+			});
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Ids candidatos, em ordem crescente, para os filtros de substring informados (nulos são ignorados).
+	 * Retorna {@code null} quando o índice não pode restringir a busca: índice desabilitado, nenhum filtro
+	 * com ao menos três caracteres ou mais candidatos que o limite configurado.
+	 */
+	public long[] candidates(String titleFilter, String authorFilter) {
+		if (!enabled) {
+			return null;
+		}
+		long[] titleKeys = trigrams(titleFilter);
+		long[] authorKeys = trigrams(authorFilter);
+		if (titleKeys.length == 0 && authorKeys.length == 0) {
+			return null;
+		}
+		lock.readLock().lock();
+		try {
+			LongPostings[] postings = new LongPostings[titleKeys.length + authorKeys.length];
+			for (int i = 0; i < titleKeys.length; i++) {
+				postings[i] = title.postings(titleKeys[i]);
+			}
+			for (int i = 0; i < authorKeys.length; i++) {
+				postings[titleKeys.length + i] = author.postings(authorKeys[i]);
+			}
+			return intersect(postings);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return Math.max(title.documents(), author.documents());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private long[] intersect(LongPostings[] postings) {
+		LongPostings smallest = null;
+		for (LongPostings list : postings) {
+			if (list == null || list.size() == 0) {
+				return new long[0];
+			}
+			if (smallest == null || list.size() < smallest.size()) {
+				smallest = list;
+			}
+		}
+		long[] result = smallest.toArray();
+		int count = result.length;
+		for (LongPostings list : postings) {
+			if (list != smallest) {
+				count = list.retainIn(result, count);
+			}
+		}
+		if (count > maxCandidates) {
+			return null;
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Trigramas distintos do texto em minúsculas, cada um com três caracteres UTF-16 empacotados em um long.
+	 */
+	static long[] trigrams(String text) {
+		if (text == null || text.length() < N) {
+			return new long[0];
+		}
+		String normalized = text.toLowerCase(Locale.ROOT);
+		long[] keys = new long[normalized.length() - N + 1];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = ((long) normalized.charAt(i) << 32) | ((long) normalized.charAt(i + 1) << 16) | normalized.charAt(i + 2);
+		}
+		Arrays.sort(keys);
+		int distinct = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (i == 0 || keys[i] != keys[i - 1]) {
+				keys[distinct++] = keys[i];
+			}
+		}
+		return Arrays.copyOf(keys, distinct);
+	}
+
+	/**
+	 * Índice de um campo: listas de ocorrência por trigrama e, por livro, os trigramas indexados,
+	 * necessários para remover o livro quando ele é alterado ou excluído.
+	 */
+	private static class FieldIndex {
+
+		private final LongObjectMap<LongPostings> postingsByTrigram = new LongObjectMap<>(1 << 14);
+		private final LongObjectMap<long[]> trigramsById = new LongObjectMap<>(1 << 14);
+
+		LongPostings postings(long trigram) {
+			return postingsByTrigram.get(trigram);
+		}
+
+		void put(long id, String text) {
+			remove(id);
+			long[] keys = trigrams(text);
+			for (long key : keys) {
+				LongPostings postings = postingsByTrigram.get(key);
+				if (postings == null) {
+					postings = new LongPostings();
+					postingsByTrigram.put(key, postings);
+				}
+				postings.add(id);
+			}
+			trigramsById.put(id, keys);
+		}
+
+		void remove(long id) {
+			long[] keys = trigramsById.remove(id);
+			if (keys == null) {
+				return;
+			}
+			for (long key : keys) {
+				LongPostings postings = postingsByTrigram.get(key);
+				if (postings != null) {
+					postings.remove(id);
+					if (postings.size() == 0) {
+						postingsByTrigram.remove(key);
+					}
+				}
+			}
+		}
+
+		int documents() {
+			return trigramsById.size();
+		}
+
+		void clear() {
+			postingsByTrigram.clear();
+			trigramsById.clear();
+		}
+	}
+}
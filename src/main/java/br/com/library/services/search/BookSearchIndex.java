@@ -0,0 +1,242 @@
+package br.com.library.services.search;
+
+import br.com.library.model.entity.Book;
+import br.com.library.services.events.BookChangedEvent;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.custom.CustomAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Índice invertido Lucene, embarcado no processo, sobre título e autor dos livros. Fica em memória, ou em
+ * disco quando {@code library.search.index-dir} é informado, e é atualizado a cada {@link BookChangedEvent}.
+ * As alterações ficam visíveis na busca seguinte (near real-time); o commit em disco ocorre no máximo a cada
+ * {@code library.search.commit-interval}.
+ *
+ * <p>Só o commit feito no encerramento marca o índice como íntegro nos dados do commit ({@value #CLEAN}); ao abrir,
+ * a marca é desfeita com um novo commit. Um índice em disco cujo último commit não é o do encerramento (queda do
+ * processo com alterações ainda não gravadas) é tratado como desatualizado e recriado na inicialização.
+ */
+@Component
+public class BookSearchIndex implements DisposableBean {
+
+	static final String ID = "id";
+	static final String TITLE = "title";
+	static final String AUTHOR = "author";
+	static final String CLEAN = "clean";
+
+	private static final float TITLE_BOOST = 2.0f;
+	private static final float EXACT_TERM_BOOST = 2.0f;
+
+	private final Analyzer analyzer;
+	private final Directory directory;
+	private final IndexWriter writer;
+	private final SearcherManager searcherManager;
+	private final long commitInterval;
+	private final boolean closedCleanly;
+	private final AtomicLong changes = new AtomicLong();
+	private volatile long refreshedChanges;
+	private volatile long lastCommit = System.nanoTime();
+
+	public BookSearchIndex(@Value("${library.search.index-dir:}") String indexDir,
+						   @Value("${library.search.commit-interval:PT1M}") Duration commitInterval) throws IOException {
+		this.analyzer = CustomAnalyzer.builder()
+				.withTokenizer("standard")
+				.addTokenFilter("lowercase")
+				.addTokenFilter("asciiFolding")
+				.build();
+		this.directory = indexDir.isEmpty() ? new ByteBuffersDirectory() : FSDirectory.open(Paths.get(indexDir));
+		this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+		this.searcherManager = new SearcherManager(writer, null);
+		this.commitInterval = commitInterval.toNanos();
+		this.closedCleanly = "true".equals(commitData().get(CLEAN));
+		writer.setLiveCommitData(Collections.singletonMap(CLEAN, "false").entrySet());
+		writer.commit();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookChanged(BookChangedEvent event) throws IOException {
+		for (Book book : event.getBooks()) {
+			Term id = new Term(ID, book.getId().toString());
+			if (event.getType() == BookChangedEvent.Type.DELETED) {
+				writer.deleteDocuments(id);
+			} else {
+				writer.updateDocument(id, toDocument(book));
+			}
+		}
+		changes.incrementAndGet();
+		if (System.nanoTime() - lastCommit > commitInterval) {
+			commit();
+		}
+	}
+
+	/**
+	 * Recria o índice a partir dos livros entregues pelo produtor informado.
+	 */
+	public void rebuild(Consumer<Consumer<Book>> books) throws IOException {
+		writer.deleteAll();
+		books.accept(book -> {
+			try {
+				writer.addDocument(toDocument(book));
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+		});
+		commit();
+	}
+
+	/**
+	 * Busca por termos e prefixos de termos no título e no autor. Todos os termos informados devem
+	 * ocorrer; termos completos e ocorrências no título pontuam mais que prefixos e ocorrências no autor.
+	 */
+	public BookSearchResult search(String text, int offset, int limit) throws IOException {
+		List<String> terms = analyze(text);
+		if (terms.isEmpty()) {
+			return new BookSearchResult(Collections.emptyList(), 0);
+		}
+		BooleanQuery.Builder query = new BooleanQuery.Builder();
+		for (String term : terms) {
+			query.add(termQuery(term), BooleanClause.Occur.MUST);
+		}
+
+		IndexSearcher searcher = acquire();
+		try {
+			TopDocs topDocs = searcher.search(query.build(), offset + limit);
+			List<Long> ids = new ArrayList<>(limit);
+			for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+				ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+				ids.add(Long.valueOf(searcher.doc(scoreDoc.doc).get(ID)));
+			}
+			return new BookSearchResult(ids, topDocs.totalHits.value);
+		} finally {
+			searcherManager.release(searcher);
+		}
+	}
+
+	/**
+	 * Se o índice aberto na inicialização veio de um encerramento normal, com todas as alterações gravadas.
+	 */
+	public boolean isClosedCleanly() {
+		return closedCleanly;
+	}
+
+	public int size() throws IOException {
+		IndexSearcher searcher = acquire();
+		try {
+			return searcher.getIndexReader().numDocs();
+		} finally {
+			searcherManager.release(searcher);
+		}
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		writer.setLiveCommitData(Collections.singletonMap(CLEAN, "true").entrySet());
+		writer.commit();
+		searcherManager.close();
+		writer.close();
+		directory.close();
+	}
+
+	private Query termQuery(String term) {
+		BooleanQuery.Builder query = new BooleanQuery.Builder();
+		query.add(new BoostQuery(new TermQuery(new Term(TITLE, term)), TITLE_BOOST * EXACT_TERM_BOOST), BooleanClause.Occur.SHOULD);
+		query.add(new BoostQuery(new TermQuery(new Term(AUTHOR, term)), EXACT_TERM_BOOST), BooleanClause.Occur.SHOULD);
+		query.add(new BoostQuery(new PrefixQuery(new Term(TITLE, term)), TITLE_BOOST), BooleanClause.Occur.SHOULD);
+		query.add(new PrefixQuery(new Term(AUTHOR, term)), BooleanClause.Occur.SHOULD);
+		return query.build();
+	}
+
+	private List<String> analyze(String text) throws IOException {
+		List<String> terms = new ArrayList<>();
+		if (text == null) {
+			return terms;
+		}
+		try (TokenStream tokens = analyzer.tokenStream(TITLE, text)) {
+			CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+			tokens.reset();
+			while (tokens.incrementToken()) {
+				terms.add(term.toString());
+			}
+			tokens.end();
+		}
+		return terms;
+	}
+
+	private Document toDocument(Book book) {
+		Document document = new Document();
+		document.add(new StringField(ID, book.getId().toString(), Field.Store.YES));
+		if (book.getTitle() != null) {
+			document.add(new TextField(TITLE, book.getTitle(), Field.Store.NO));
+		}
+		if (book.getAuthor() != null) {
+			document.add(new TextField(AUTHOR, book.getAuthor(), Field.Store.NO));
+		}
+		return document;
+	}
+
+	/**
+	 * Reabre o searcher apenas quando houve escrita desde a última busca, de forma que rajadas de escritas
+	 * pagam uma única reabertura, feita pela próxima leitura. O contador só é dado como visto depois da
+	 * reabertura, então uma leitura concorrente também espera por ela em vez de usar o searcher antigo.
+	 */
+	private IndexSearcher acquire() throws IOException {
+		long pending = changes.get();
+		if (pending != refreshedChanges) {
+			searcherManager.maybeRefreshBlocking();
+			refreshedChanges = pending;
+		}
+		return searcherManager.acquire();
+	}
+
+	private void commit() throws IOException {
+		writer.commit();
+		lastCommit = System.nanoTime();
+		changes.incrementAndGet();
+	}
+
+	private Map<String, String> commitData() {
+		Map<String, String> data = new HashMap<>();
+		Iterable<Map.Entry<String, String>> live = writer.getLiveCommitData();
+		if (live != null) {
+			live.forEach(entry -> data.put(entry.getKey(), entry.getValue()));
+		}
+		return data;
+	}
+}
@@ -0,0 +1,18 @@
+package br.com.library.services.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Ids dos livros encontrados, em ordem de relevância, e o total de ocorrências da busca.
+ */
+@Getter
+@AllArgsConstructor
+public class BookSearchResult {
+
+	private final List<Long> ids;
+	private final long totalHits;
+
+}
@@ -0,0 +1,59 @@
+package br.com.library.services.search;
+
+import java.util.Arrays;
+
+/**
+ * Lista de ids ordenada e sem repetição, armazenada em um {@code long[]}.
+ */
+class LongPostings {
+
+	private long[] ids = new long[4];
+	private int size;
+
+	void add(long id) {
+		int position = Arrays.binarySearch(ids, 0, size, id);
+		if (position >= 0) {
+			return;
+		}
+		position = -position - 1;
+		if (size == ids.length) {
+			ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+		}
+		System.arraycopy(ids, position, ids, position + 1, size - position);
+		ids[position] = id;
+		size++;
+	}
+
+	void remove(long id) {
+		int position = Arrays.binarySearch(ids, 0, size, id);
+		if (position >= 0) {
+			System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+			size--;
+		}
+	}
+
+	boolean contains(long id) {
+		return Arrays.binarySearch(ids, 0, size, id) >= 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	long[] toArray() {
+		return Arrays.copyOf(ids, size);
+	}
+
+	/**
+	 * Mantém em {@code candidates} apenas os ids presentes nesta lista e retorna quantos restaram.
+	 */
+	int retainIn(long[] candidates, int count) {
+		int kept = 0;
+		for (int i = 0; i < count; i++) {
+			if (contains(candidates[i])) {
+				candidates[kept++] = candidates[i];
+			}
+		}
+		return kept;
+	}
+}
@@ -0,0 +1,98 @@
+package br.com.library.api.cache;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.model.entity.Book;
+import br.com.library.services.events.BookChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookJsonCacheTest {
+
+	ObjectMapper objectMapper = new ObjectMapper();
+
+	BookJsonCache cache = new BookJsonCache(objectMapper, true, DataSize.ofMegabytes(1), true, DataSize.ofBytes(64));
+
+	@Test
+	@DisplayName("Deve guardar o JSON do livro apenas para a versão serializada.")
+	public void versionedEntryTest() throws Exception {
+		//cenário
+		BookDTO dto = BookDTO.builder().id(1L).title("As Aventuras").author("Fulano").isbn("123").version(2L).build();
+
+		byte[] json = objectMapper.writeValueAsBytes(dto);
+
+		//execução
+		cache.put(dto);
+
+		//verificação
+		assertThat(cache.get(1L, 2L)).hasValueSatisfying(entry -> assertThat(entry.getJson()).isEqualTo(json));
+		assertThat(cache.get(1L, 3L)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Não deve trocar a entrada de uma versão por a de uma versão anterior.")
+	public void olderVersionTest() {
+		//cenário
+		cache.put(BookDTO.builder().id(1L).title("Novo").version(3L).build());
+
+		//execução
+		cache.put(BookDTO.builder().id(1L).title("Antigo").version(2L).build());
+
+		//verificação
+		assertThat(cache.get(1L, 3L)).isPresent();
+		assertThat(cache.get(1L, 2L)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve guardar também a versão gzip dos corpos acima do tamanho mínimo.")
+	public void gzipTest() throws Exception {
+		//cenário
+		String title = String.join(" ", Collections.nCopies(20, "As Aventuras"));
+		BookDTO dto = BookDTO.builder().id(1L).title(title).author("Fulano").isbn("123").version(0L).build();
+
+		//execução
+		BookJsonCache.Entry entry = cache.put(dto);
+
+		//verificação
+		assertThat(entry.getGzip()).isNotNull().hasSizeLessThan(entry.getJson().length);
+		byte[] decompressed = StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(entry.getGzip())));
+		assertThat(decompressed).isEqualTo(entry.getJson());
+	}
+
+	@Test
+	@DisplayName("Deve remover a entrada quando o livro for alterado ou excluído.")
+	public void invalidateOnChangeTest() {
+		//cenário
+		cache.put(BookDTO.builder().id(1L).title("As Aventuras").version(0L).build());
+
+		//execução
+		cache.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.UPDATED,
+				Collections.singletonList(Book.builder().id(1L).version(1L).build())));
+
+		//verificação
+		assertThat(cache.get(1L, 0L)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve respeitar o limite de memória, descartando entradas.")
+	public void memoryBudgetTest() {
+		//cenário
+		BookJsonCache small = new BookJsonCache(objectMapper, true, DataSize.ofKilobytes(2), false, DataSize.ofKilobytes(1));
+
+		//execução
+		for (long id = 1; id <= 100; id++) {
+			small.put(BookDTO.builder().id(id).title("Livro " + id).author("Fulano").isbn("isbn-" + id).version(0L).build());
+		}
+
+		//verificação
+		assertThat(small.size()).isLessThan(100);
+	}
+}
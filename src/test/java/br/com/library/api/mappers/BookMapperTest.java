@@ -0,0 +1,61 @@
+package br.com.library.api.mappers;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.api.dtos.LoanDTO;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.Loan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookMapperTest {
+
+	BookMapper directBookMapper = new DirectBookMapper();
+	BookMapper modelMapperBookMapper = new ModelMapperBookMapper(new ModelMapper());
+
+	LoanMapper directLoanMapper = new DirectLoanMapper();
+	LoanMapper modelMapperLoanMapper = new ModelMapperLoanMapper(new ModelMapper());
+
+	@Test
+	@DisplayName("Deve mapear um livro para DTO igual ao ModelMapper.")
+	public void bookToDtoTest() {
+		Book book = Book.builder().id(1L).title("As Aventuras").author("Eduardo").isbn("123").build();
+
+		BookDTO dto = directBookMapper.toDto(book);
+
+		assertThat(dto).isEqualTo(modelMapperBookMapper.toDto(book));
+		assertThat(dto.getId()).isEqualTo(1L);
+		assertThat(dto.getTitle()).isEqualTo("As Aventuras");
+		assertThat(dto.getAuthor()).isEqualTo("Eduardo");
+		assertThat(dto.getIsbn()).isEqualTo("123");
+	}
+
+	@Test
+	@DisplayName("Deve mapear um DTO para livro igual ao ModelMapper.")
+	public void dtoToBookTest() {
+		BookDTO dto = BookDTO.builder().title("As Aventuras").author("Eduardo").build();
+
+		Book book = directBookMapper.toEntity(dto);
+
+		assertThat(book).isEqualTo(modelMapperBookMapper.toEntity(dto));
+		assertThat(book.getId()).isNull();
+		assertThat(book.getIsbn()).isNull();
+	}
+
+	@Test
+	@DisplayName("Deve mapear um emprestimo de e para DTO igual ao ModelMapper.")
+	public void loanMappingTest() {
+		Book book = Book.builder().id(1L).isbn("123").build();
+		LoanDTO dto = LoanDTO.builder().isbn("123").customer("Fulano").build();
+
+		Loan loan = directLoanMapper.toEntity(dto, book);
+
+		assertThat(loan.getBook()).isSameAs(book);
+		assertThat(loan.getCustomer()).isEqualTo("Fulano");
+		assertThat(modelMapperLoanMapper.toEntity(dto, book)).isEqualTo(loan);
+		assertThat(directLoanMapper.toDto(loan)).isEqualTo(dto).isEqualTo(modelMapperLoanMapper.toDto(loan));
+	}
+
+}
@@ -1,10 +1,22 @@
 package br.com.library.api.resources;
 
+import br.com.library.api.cache.BookJsonCache;
 import br.com.library.api.dtos.BookDTO;
+import br.com.library.api.dtos.BookLookupDTO;
+import br.com.library.api.dtos.PageDTO;
 import br.com.library.exceptions.BusinessException;
+import br.com.library.metrics.MappingMetrics;
+import br.com.library.metrics.SlowQueryTracer;
 import br.com.library.model.entity.Book;
+import br.com.library.services.BookSearchService;
 import br.com.library.services.BookService;
+import br.com.library.services.cache.BookVersionCache;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,26 +27,48 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
-
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
-@WebMvcTest(controllers = BookController.class)
+@WebMvcTest(controllers = BookController.class, properties = {
+		"library.cache.book-json.enabled=true",
+		"library.cache.book-json.gzip=true",
+		"library.cache.book-json.gzip-min-size=0B"
+})
 @AutoConfigureMockMvc
+@Import({SlowQueryTracer.class, BookVersionCache.class, BookJsonCache.class, MappingMetrics.class})
 public class BookControllerTest {
 
 	static String BOOK_API = "/api/books";
@@ -45,6 +79,12 @@ public class BookControllerTest {
 	@MockBean
 	BookService bookService;
 
+	@MockBean
+	BookSearchService bookSearchService;
+
+	@Autowired
+	MappingMetrics mappingMetrics;
+
 	@Test
 	@DisplayName("Deve criar um livro.")
 	public void createBook() throws Exception {
@@ -174,11 +214,8 @@ public class BookControllerTest {
 		Long id = 1L;
 		String json = new ObjectMapper().writeValueAsString(createNewBook());
 
-		Book update = Book.builder().id(1L).title("Mais um").author("Tavares").isbn("147852").build();
-		BDDMockito.given(bookService.getById(id)).willReturn(Optional.of(update));
-
 		Book updatedBook = Book.builder().id(id).author("Eduardo").title("As Aventuras").isbn("147852").build();
-		BDDMockito.given(bookService.update(update)).willReturn(updatedBook);
+		BDDMockito.given(bookService.merge(Mockito.eq(id), Mockito.any())).willReturn(Optional.of(updatedBook));
 
 		//execução
 		MockHttpServletRequestBuilder request =
@@ -200,7 +237,7 @@ public class BookControllerTest {
 		//cenário (given - dado) no BDD
 		String json = new ObjectMapper().writeValueAsString(createNewBook());
 
-		BDDMockito.given(bookService.getById(Mockito.anyLong())).willReturn(Optional.empty());
+		BDDMockito.given(bookService.merge(Mockito.anyLong(), Mockito.any())).willReturn(Optional.empty());
 
 		//execução
 		MockHttpServletRequestBuilder request =
@@ -217,7 +254,7 @@ public class BookControllerTest {
 	public void findBooksTest() throws Exception {
 		Long id = 1L;
 
-		Book book = Book.builder()
+		BookDTO book = BookDTO.builder()
 						.id(id)
 						.author(createNewBook().getAuthor())
 						.title(createNewBook().getTitle())
@@ -225,8 +262,8 @@ public class BookControllerTest {
 						.build();
 
 		//execução
-		BDDMockito.given(bookService.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
-				.willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 100), 1));
+		BDDMockito.given(bookService.findDtos(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+				.willReturn(new PageImpl<BookDTO>(Arrays.asList(book), PageRequest.of(0, 100), 1));
 
 		String queryString = String.format("?title=%s&author=%s&page=0&size=100", book.getTitle(), book.getAuthor());
 
@@ -242,6 +279,471 @@ public class BookControllerTest {
 				.andExpect(jsonPath("pageable.pageNumber").value(0));
 	}
 
+	@Test
+	@DisplayName("Deve recusar a versão como filtro da busca, em vez de ignorá-la.")
+	public void findBooksByVersionTest() throws Exception {
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(BOOK_API.concat("?version=3"))
+				.accept(MediaType.APPLICATION_JSON);
+
+		mvc.perform(request).andExpect(status().isBadRequest());
+		Mockito.verify(bookService, Mockito.never()).findDtos(Mockito.any(Book.class), Mockito.any(Pageable.class));
+	}
+
+	@Test
+	@DisplayName("Deve importar livros em lote informando o resultado de cada item.")
+	public void createBatchTest() throws Exception {
+		BookDTO valid = createNewBook();
+		BookDTO duplicated = BookDTO.builder().author("Fulano").title("Outro").isbn("999").build();
+		BookDTO invalid = BookDTO.builder().author("Fulano").build();
+		String json = new ObjectMapper().writeValueAsString(Arrays.asList(valid, duplicated, invalid));
+
+		BDDMockito.given(bookService.saveAll(Mockito.anyList()))
+				.willReturn(Arrays.asList(Book.builder().id(10L).isbn(valid.getIsbn()).build()));
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(BOOK_API.concat("/batch"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				.content(json);
+
+		mvc.perform(request)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", Matchers.hasSize(3)))
+				.andExpect(jsonPath("[0].status").value("CREATED"))
+				.andExpect(jsonPath("[0].id").value(10L))
+				.andExpect(jsonPath("[1].status").value("DUPLICATE"))
+				.andExpect(jsonPath("[2].status").value("INVALID"))
+				.andExpect(jsonPath("[2].errors", Matchers.hasSize(2)));
+	}
+
+	@Test
+	@DisplayName("Deve importar livros em lote a partir de NDJSON.")
+	public void createBatchStreamTest() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		BookDTO first = createNewBook();
+		BookDTO second = BookDTO.builder().author("Fulano").title("Outro").isbn("999").build();
+		String ndjson = mapper.writeValueAsString(first) + "\n" + mapper.writeValueAsString(second) + "\n";
+
+		BDDMockito.given(bookService.saveAll(Mockito.anyList())).willReturn(Arrays.asList(
+				Book.builder().id(10L).isbn(first.getIsbn()).build(),
+				Book.builder().id(11L).isbn(second.getIsbn()).build()));
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(BOOK_API.concat("/batch"))
+				.contentType(BookController.APPLICATION_NDJSON_VALUE)
+				.accept(MediaType.APPLICATION_JSON)
+				.content(ndjson);
+
+		mvc.perform(request)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", Matchers.hasSize(2)))
+				.andExpect(jsonPath("[0].id").value(10L))
+				.andExpect(jsonPath("[1].id").value(11L))
+				.andExpect(jsonPath("[1].index").value(1));
+	}
+
+	@Test
+	@DisplayName("Deve exportar os livros em CSV.")
+	public void exportCsvTest() throws Exception {
+		Book book = Book.builder().id(1L).author("Eduardo").title("Aventuras, volume 1").isbn("147852").build();
+		BDDMockito.willAnswer(invocation -> {
+			Consumer<Book> consumer = invocation.getArgument(1);
+			consumer.accept(book);
+			return null;
+		}).given(bookService).export(Mockito.any(Book.class), Mockito.any());
+
+		MvcResult result = mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export?format=csv")))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().string("id,title,author,isbn\n1,\"Aventuras, volume 1\",Eduardo,147852\n"));
+	}
+
+	@Test
+	@DisplayName("Deve exportar os livros em NDJSON.")
+	public void exportNdjsonTest() throws Exception {
+		Book book = Book.builder().id(1L).author("Eduardo").title("As Aventuras").isbn("147852").version(0L).build();
+		BDDMockito.willAnswer(invocation -> {
+			Consumer<Book> consumer = invocation.getArgument(1);
+			consumer.accept(book);
+			consumer.accept(book);
+			return null;
+		}).given(bookService).export(Mockito.any(Book.class), Mockito.any());
+
+		MvcResult result = mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export")))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		String line = "{\"id\":1,\"title\":\"As Aventuras\",\"author\":\"Eduardo\",\"isbn\":\"147852\",\"version\":0}\n";
+		mvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().string(line + line));
+	}
+
+	@Test
+	@DisplayName("Deve paginar livros por cursor sem consulta de contagem.")
+	public void findBooksAfterCursorTest() throws Exception {
+		BookDTO book = BookDTO.builder().id(5L).author("Eduardo").title("As Aventuras").isbn("147852").build();
+		BDDMockito.given(bookService.findDtosAfter(Mockito.any(Book.class), Mockito.eq(4L), Mockito.eq(1)))
+				.willReturn(new SliceImpl<>(Arrays.asList(book), PageRequest.of(0, 1), true));
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+				.get(BOOK_API.concat("?after=" + BookCursor.encode(4L) + "&size=1"))
+				.accept(MediaType.APPLICATION_JSON);
+
+		mvc.perform(request)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("content", Matchers.hasSize(1)))
+				.andExpect(jsonPath("hasNext").value(true))
+				.andExpect(jsonPath("nextCursor").value(BookCursor.encode(5L)))
+				.andExpect(jsonPath("totalElements").doesNotExist());
+	}
+
+	@Test
+	@DisplayName("Deve retornar erro para cursor inválido.")
+	public void findBooksInvalidCursorTest() throws Exception {
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+				.get(BOOK_API.concat("?after=invalido"))
+				.accept(MediaType.APPLICATION_JSON);
+
+		mvc.perform(request).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@DisplayName("Deve buscar livros por texto.")
+	public void searchBooksTest() throws Exception {
+		Book book = Book.builder().id(1L).author("Eduardo").title("As Aventuras").isbn("147852").build();
+		BDDMockito.given(bookSearchService.search(Mockito.eq("aventu"), Mockito.any(Pageable.class)))
+				.willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 20), 1));
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(BOOK_API.concat("/search?q=aventu"))
+				.accept(MediaType.APPLICATION_JSON);
+
+		mvc.perform(request)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("content", Matchers.hasSize(1)))
+				.andExpect(jsonPath("content[0].id").value(1L))
+				.andExpect(jsonPath("totalElements").value(1));
+	}
+
+	@Test
+	@DisplayName("Deve medir o mapeamento da busca por texto uma única vez por requisição.")
+	public void searchMappingTimerTest() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		mappingMetrics.bindTo(registry);
+		List<Book> books = LongStream.rangeClosed(1, 3)
+				.mapToObj(id -> Book.builder().id(id).author("Eduardo").title("As Aventuras " + id).isbn("isbn-" + id).build())
+				.collect(Collectors.toList());
+		BDDMockito.given(bookSearchService.search(Mockito.eq("aventu"), Mockito.any(Pageable.class)))
+				.willReturn(new PageImpl<Book>(books, PageRequest.of(0, 20), 3));
+
+		mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/search?q=aventu")).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("content", Matchers.hasSize(3)));
+
+		Timer timer = registry.get(MappingMetrics.METRIC).tag("endpoint", "search").timer();
+		assertThat(timer.count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve responder com o JSON pronto do cache, sem consultar o serviço, enquanto a versão do livro não mudar.")
+	public void getBookFromJsonCacheTest() throws Exception {
+		//cenário
+		Long id = 78L;
+		Book book = Book.builder().id(id).title("As Aventuras").author("Eduardo").isbn("147852").version(2L).build();
+		BDDMockito.given(bookService.getById(id)).willReturn(Optional.of(book));
+		String first = mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/" + id)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/" + id)))
+				//verificação
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(content().json(first, true))
+				.andExpect(jsonPath("title").value("As Aventuras"));
+		Mockito.verify(bookService, Mockito.times(1)).getById(id);
+	}
+
+	@Test
+	@DisplayName("Deve responder o JSON comprimido com ETag própria só a quem aceita gzip com q maior que zero.")
+	public void getBookGzipTest() throws Exception {
+		//cenário
+		Long id = 80L;
+		String title = String.join(" ", Collections.nCopies(50, "As Aventuras"));
+		Book book = Book.builder().id(id).title(title).author("Eduardo").isbn("147852").version(5L).build();
+		BDDMockito.given(bookService.getById(id)).willReturn(Optional.of(book));
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/" + id)).header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+				//verificação
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(header().string(HttpHeaders.ETAG, "\"5-gzip\""))
+				.andExpect(header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT_ENCODING)));
+		mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/" + id)).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andExpect(header().string(HttpHeaders.ETAG, "\"5\""))
+				.andExpect(jsonPath("title").value(title));
+		mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/" + id)).header(HttpHeaders.IF_NONE_MATCH, "\"5-gzip\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"5-gzip\""));
+	}
+
+	@Test
+	@DisplayName("Deve responder 304 sem consultar o serviço quando o If-None-Match traz a versão conhecida do livro.")
+	public void getBookNotModifiedTest() throws Exception {
+		//cenário
+		Long id = 77L;
+		Book book = Book.builder().id(id).title("As Aventuras").author("Eduardo").isbn("147852").version(3L).build();
+		BDDMockito.given(bookService.getById(id)).willReturn(Optional.of(book));
+
+		mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/" + id)))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+				.andExpect(jsonPath("version").value(3));
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/" + id)).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+				//verificação
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+		Mockito.verify(bookService, Mockito.times(1)).getById(id);
+	}
+
+	@Test
+	@DisplayName("Deve responder 304 na busca enquanto a versão do acervo não mudar.")
+	public void findBooksNotModifiedTest() throws Exception {
+		//cenário
+		BDDMockito.given(bookService.findDtos(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+				.willReturn(new PageImpl<>(Arrays.asList(BookDTO.builder().id(1L).build()), PageRequest.of(0, 10), 1));
+		String etag = mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?title=aventuras")))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?title=aventuras")).header(HttpHeaders.IF_NONE_MATCH, etag))
+				//verificação
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT)));
+		Mockito.verify(bookService, Mockito.times(1)).findDtos(Mockito.any(Book.class), Mockito.any(Pageable.class));
+	}
+
+	@Test
+	@DisplayName("Deve retornar 412 ao atualizar com If-Match de uma versão desatualizada.")
+	public void updateBookPreconditionFailedTest() throws Exception {
+		//cenário
+		Book book = Book.builder().id(1L).title("Mais um").author("Tavares").isbn("147852").version(5L).build();
+		BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(createNewBook()))
+				.header(HttpHeaders.IF_MATCH, "\"4\""))
+				//verificação
+				.andExpect(status().isPreconditionFailed());
+		Mockito.verify(bookService, Mockito.never()).update(Mockito.any(Book.class));
+	}
+
+	@Test
+	@DisplayName("Deve atualizar com If-Match da versão atual e devolver a ETag da nova versão.")
+	public void updateBookIfMatchTest() throws Exception {
+		//cenário
+		Book book = Book.builder().id(1L).title("Mais um").author("Tavares").isbn("147852").version(5L).build();
+		BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+		BDDMockito.given(bookService.update(book))
+				.willReturn(Book.builder().id(1L).title("As Aventuras").author("Eduardo").isbn("147852").version(6L).build());
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(createNewBook()))
+				.header(HttpHeaders.IF_MATCH, "\"5\""))
+				//verificação
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"6\""))
+				.andExpect(jsonPath("version").value(6));
+		Mockito.verify(bookService, Mockito.never()).merge(Mockito.anyLong(), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve retornar 409 quando a versão enviada no corpo já tiver sido alterada por outra requisição.")
+	public void updateBookVersionConflictTest() throws Exception {
+		//cenário
+		Book book = Book.builder().id(1L).title("Mais um").author("Tavares").isbn("147852").version(5L).build();
+		BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+		BDDMockito.given(bookService.update(Mockito.any(Book.class)))
+				.willThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+		BookDTO dto = createNewBook();
+		dto.setVersion(4L);
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(dto)))
+				//verificação
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("errors", Matchers.hasSize(1)));
+		Mockito.verify(bookService).update(Mockito.argThat(updated -> updated.getVersion() == 4L));
+	}
+
+	@Test
+	@DisplayName("Deve alterar apenas os campos presentes no documento parcial.")
+	public void patchBookTest() throws Exception {
+		//cenário
+		Book book = Book.builder().id(1L).title("Mais um").author("Tavares").isbn("147852").version(5L).build();
+		BDDMockito.given(bookService.merge(Mockito.eq(1L), Mockito.any())).willAnswer(invocation -> {
+			invocation.<Consumer<Book>>getArgument(1).accept(book);
+			book.setVersion(6L);
+			return Optional.of(book);
+		});
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.patch(BOOK_API.concat("/1"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"As Aventuras\"}"))
+				//verificação
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"6\""))
+				.andExpect(jsonPath("title").value("As Aventuras"))
+				.andExpect(jsonPath("author").value("Tavares"))
+				.andExpect(jsonPath("isbn").value("147852"));
+	}
+
+	@Test
+	@DisplayName("Deve retornar 409 no patch quando a versão enviada estiver desatualizada.")
+	public void patchBookVersionConflictTest() throws Exception {
+		//cenário
+		Book book = Book.builder().id(1L).title("Mais um").author("Tavares").isbn("147852").version(5L).build();
+		BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+		BDDMockito.given(bookService.update(Mockito.any(Book.class)))
+				.willThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.patch(BOOK_API.concat("/1"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"author\":\"Eduardo\",\"version\":4}"))
+				//verificação
+				.andExpect(status().isConflict());
+		Mockito.verify(bookService).update(Mockito.argThat(updated ->
+				updated.getVersion() == 4L && "Eduardo".equals(updated.getAuthor()) && "Mais um".equals(updated.getTitle())));
+	}
+
+	@Test
+	@DisplayName("Deve obter vários livros por id e isbn na ordem pedida, informando as chaves inexistentes.")
+	public void lookupBooksTest() throws Exception {
+		//cenário
+		Book first = Book.builder().id(1L).title("Um").author("Fulano").isbn("111").build();
+		Book third = Book.builder().id(3L).title("Três").author("Fulano").isbn("333").build();
+		Book byIsbn = Book.builder().id(9L).title("Nove").author("Beltrano").isbn("999").build();
+		BDDMockito.given(bookService.getByIds(Arrays.asList(3L, 2L, 1L))).willReturn(Stream.of(first, third)
+				.collect(Collectors.toMap(Book::getId, Function.identity())));
+		BDDMockito.given(bookService.getByIsbns(Arrays.asList("999", "000")))
+				.willReturn(Collections.singletonMap("999", byIsbn));
+		String json = new ObjectMapper().writeValueAsString(BookLookupDTO.builder()
+				.ids(Arrays.asList(3L, 2L, 1L, 3L)).isbns(Arrays.asList("999", "000")).build());
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.post(BOOK_API.concat("/lookup"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(json))
+				//verificação
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("content[*].id").value(Matchers.contains(3, 1, 9)))
+				.andExpect(jsonPath("missingIds").value(Matchers.contains(2)))
+				.andExpect(jsonPath("missingIsbns").value(Matchers.contains("000")));
+	}
+
+	@Test
+	@DisplayName("Deve obter vários livros pelos ids informados na query string.")
+	public void findBooksByIdsTest() throws Exception {
+		//cenário
+		Book book = Book.builder().id(2L).title("Dois").author("Fulano").isbn("222").build();
+		BDDMockito.given(bookService.getByIds(Arrays.asList(2L, 5L))).willReturn(Collections.singletonMap(2L, book));
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?ids=2,5")))
+				//verificação
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("content[0].isbn").value("222"))
+				.andExpect(jsonPath("missingIds").value(Matchers.contains(5)));
+		Mockito.verify(bookService, Mockito.never()).findDtos(Mockito.any(Book.class), Mockito.any(Pageable.class));
+	}
+
+	@Test
+	@DisplayName("Deve recusar consultas com mais livros que o limite.")
+	public void lookupTooManyBooksTest() throws Exception {
+		//cenário
+		List<Long> ids = LongStream.rangeClosed(1, BookController.MAX_LOOKUP_SIZE + 1).boxed().collect(Collectors.toList());
+		String json = new ObjectMapper().writeValueAsString(BookLookupDTO.builder().ids(ids).build());
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.post(BOOK_API.concat("/lookup"))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(json))
+				//verificação
+				.andExpect(status().isBadRequest());
+		Mockito.verifyNoInteractions(bookService);
+	}
+
+	@Test
+	@DisplayName("Deve responder a busca em CBOR no envelope de página estável quando o cliente pedir.")
+	public void findBooksCborTest() throws Exception {
+		//cenário
+		BookDTO book = createNewBook().toBuilder().id(1L).version(0L).build();
+		BDDMockito.given(bookService.findDtos(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+				.willReturn(new PageImpl<>(Arrays.asList(book), PageRequest.of(0, 20), 41));
+
+		//execução
+		MvcResult result = mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?size=20")).accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andExpect(header().string(HttpHeaders.ETAG, Matchers.startsWith("W/")))
+				.andReturn();
+		PageDTO<BookDTO> page = new ObjectMapper(new CBORFactory())
+				.readValue(result.getResponse().getContentAsByteArray(), new TypeReference<PageDTO<BookDTO>>() {});
+
+		//verificação
+		assertThat(page.getContent()).containsExactly(book);
+		assertThat(page.getNumber()).isEqualTo(0);
+		assertThat(page.getSize()).isEqualTo(20);
+		assertThat(page.getTotalElements()).isEqualTo(41);
+		assertThat(page.getTotalPages()).isEqualTo(3);
+	}
+
+	@Test
+	@DisplayName("Deve responder o livro em Smile sem usar o JSON pronto do cache, com ETag fraca da versão.")
+	public void getBookSmileTest() throws Exception {
+		//cenário
+		Long id = 79L;
+		Book book = Book.builder().id(id).title("As Aventuras").author("Eduardo").isbn("147852").version(4L).build();
+		BDDMockito.given(bookService.getById(id)).willReturn(Optional.of(book));
+		mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/" + id)))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+		MediaType smile = MediaType.parseMediaType(BookController.APPLICATION_SMILE_VALUE);
+
+		//execução
+		MvcResult result = mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/" + id)).accept(smile))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(smile))
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"4\""))
+				.andReturn();
+		BookDTO dto = new ObjectMapper(new SmileFactory()).readValue(result.getResponse().getContentAsByteArray(), BookDTO.class);
+
+		//verificação
+		assertThat(dto.getTitle()).isEqualTo("As Aventuras");
+		assertThat(dto.getVersion()).isEqualTo(4L);
+		mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/" + id)).accept(smile).header(HttpHeaders.IF_NONE_MATCH, "W/\"4\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.VARY, Matchers.containsString(HttpHeaders.ACCEPT)));
+		Mockito.verify(bookService, Mockito.times(2)).getById(id);
+	}
+
 	private BookDTO createNewBook() {
 		return BookDTO.builder().author("Eduardo").title("As Aventuras").isbn("147852").build();
 	}
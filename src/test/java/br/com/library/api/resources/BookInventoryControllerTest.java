@@ -0,0 +1,114 @@
+package br.com.library.api.resources;
+
+import br.com.library.api.dtos.BookInventoryDTO;
+import br.com.library.exceptions.BusinessException;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.BookInventory;
+import br.com.library.services.BookInventoryService;
+import br.com.library.services.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Optional;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = BookInventoryController.class)
+@AutoConfigureMockMvc
+public class BookInventoryControllerTest {
+
+	static final String INVENTORY_API = "/api/books/1/inventory";
+
+	@Autowired
+	MockMvc mvc;
+
+	@MockBean
+	BookService bookService;
+
+	@MockBean
+	BookInventoryService inventoryService;
+
+	Book book = Book.builder().id(1L).isbn("123").build();
+
+	@Test
+	@DisplayName("Deve definir a quantidade de exemplares do livro.")
+	public void updateInventoryTest() throws Exception {
+		//cenário
+		String json = new ObjectMapper().writeValueAsString(BookInventoryDTO.builder().copies(10).build());
+		BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+		BDDMockito.given(inventoryService.setCopies(book, 10))
+				.willReturn(BookInventory.builder().bookId(1L).copies(10).available(9).build());
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.put(INVENTORY_API)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(json))
+				//verificação
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("copies").value(10))
+				.andExpect(jsonPath("available").value(9));
+	}
+
+	@Test
+	@DisplayName("Deve recusar quantidade negativa de exemplares.")
+	public void invalidInventoryTest() throws Exception {
+		//cenário
+		String json = new ObjectMapper().writeValueAsString(BookInventoryDTO.builder().copies(-1).build());
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.put(INVENTORY_API)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(json))
+				//verificação
+				.andExpect(status().isBadRequest());
+		Mockito.verifyNoInteractions(inventoryService);
+	}
+
+	@Test
+	@DisplayName("Deve retornar 400 quando houver mais exemplares emprestados que a quantidade informada.")
+	public void tooFewCopiesTest() throws Exception {
+		//cenário
+		String json = new ObjectMapper().writeValueAsString(BookInventoryDTO.builder().copies(1).build());
+		BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+		BDDMockito.given(inventoryService.setCopies(book, 1))
+				.willThrow(new BusinessException("Há mais exemplares emprestados que a quantidade informada."));
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.put(INVENTORY_API)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(json))
+				//verificação
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("errors[0]").value("Há mais exemplares emprestados que a quantidade informada."));
+	}
+
+	@Test
+	@DisplayName("Deve retornar 404 para livro sem estoque cadastrado.")
+	public void inventoryNotFoundTest() throws Exception {
+		//cenário
+		BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+		BDDMockito.given(inventoryService.getByBook(book)).willReturn(Optional.empty());
+
+		//execução
+		mvc.perform(MockMvcRequestBuilders.get(INVENTORY_API))
+				//verificação
+				.andExpect(status().isNotFound());
+	}
+
+}
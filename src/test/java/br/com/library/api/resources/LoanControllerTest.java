@@ -1,11 +1,15 @@
 package br.com.library.api.resources;
 
 import br.com.library.api.dtos.LoanDTO;
+import br.com.library.exceptions.BusinessException;
 import br.com.library.model.entity.Book;
 import br.com.library.model.entity.Loan;
 import br.com.library.services.BookService;
 import br.com.library.services.LoanService;
+import br.com.library.services.batch.LoanBatcher;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,22 +19,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDate;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 @WebMvcTest(controllers = LoanController.class)
 @AutoConfigureMockMvc
+@Import(LoanBatcher.class)
 public class LoanControllerTest {
 
 	static final String LOAN_API = "/api/loans";
@@ -67,4 +75,74 @@ public class LoanControllerTest {
 				.andExpect(content().string("1"));
 	}
 
+	@Test
+	@DisplayName("Deve realizar um emprestimo recebendo e respondendo em CBOR")
+	public void createLoanCborTest() throws Exception {
+
+		LoanDTO dto = LoanDTO.builder().isbn("123").customer("Fulano").build();
+		ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+
+		Book book = Book.builder().id(1L).isbn("123").author("Beltrano").title("Livro").build();
+		BDDMockito.given(bookService.getBookByIsbn(dto.getIsbn())).willReturn(Optional.of(book));
+
+		Loan loan = Loan.builder().id(1L).customer("Fulano").book(book).loanDate(LocalDate.now()).build();
+		BDDMockito.given(loanService.save(Mockito.any(Loan.class))).willReturn(loan);
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API)
+				.contentType(MediaType.APPLICATION_CBOR)
+				.accept(MediaType.APPLICATION_CBOR)
+				.content(cbor.writeValueAsBytes(dto));
+
+		MvcResult result = mvc.perform(request)
+				.andExpect(status().isCreated())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn();
+
+		assertThat(cbor.readValue(result.getResponse().getContentAsByteArray(), Long.class)).isEqualTo(1L);
+		Mockito.verify(loanService).save(Mockito.argThat(saved -> "Fulano".equals(saved.getCustomer())));
+	}
+
+	@Test
+	@DisplayName("Deve retornar erro ao tentar emprestar um livro inexistente")
+	public void invalidIsbnCreateLoanTest() throws Exception {
+
+		LoanDTO dto = LoanDTO.builder().isbn("123").customer("Fulano").build();
+		String json = new ObjectMapper().writeValueAsString(dto);
+
+		BDDMockito.given(bookService.getBookByIsbn(dto.getIsbn())).willReturn(Optional.empty());
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				.content(json);
+
+		mvc.perform(request)
+				.andExpect(status().isBadRequest());
+
+		Mockito.verify(loanService, Mockito.never()).save(Mockito.any(Loan.class));
+	}
+
+	@Test
+	@DisplayName("Deve retornar erro ao tentar emprestar um livro já emprestado")
+	public void loanedBookErrorOnCreateLoanTest() throws Exception {
+
+		LoanDTO dto = LoanDTO.builder().isbn("123").customer("Fulano").build();
+		String json = new ObjectMapper().writeValueAsString(dto);
+
+		Book book = Book.builder().id(1L).isbn("123").build();
+		BDDMockito.given(bookService.getBookByIsbn(dto.getIsbn())).willReturn(Optional.of(book));
+		BDDMockito.given(loanService.save(Mockito.any(Loan.class)))
+				.willThrow(new BusinessException("Livro já emprestado."));
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(LOAN_API)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				.content(json);
+
+		mvc.perform(request)
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("errors", Matchers.hasSize(1)))
+				.andExpect(jsonPath("errors[0]").value("Livro já emprestado."));
+	}
+
 }
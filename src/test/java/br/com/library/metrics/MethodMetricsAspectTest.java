@@ -0,0 +1,120 @@
+package br.com.library.metrics;
+
+import br.com.library.api.mappers.BookMapper;
+import br.com.library.api.mappers.DirectBookMapper;
+import br.com.library.exceptions.BusinessException;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.Loan;
+import br.com.library.model.repositories.BookRepository;
+import br.com.library.services.LoanService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import(MethodMetricsAspect.class)
+public class MethodMetricsAspectTest {
+
+	@TestConfiguration
+	static class MetricsConfiguration {
+		@Bean
+		public MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	BookRepository repository;
+
+	@Autowired
+	MeterRegistry registry;
+
+	@Test
+	@DisplayName("Deve medir as consultas do repositório, separando a busca por Example das demais sobrecargas.")
+	public void repositoryTimerTest() {
+		//execução
+		repository.existsByIsbn("123");
+		repository.findByIsbn("123");
+		repository.findAll(Example.of(new Book()), PageRequest.of(0, 10));
+		repository.findAll(PageRequest.of(0, 10));
+
+		//verificação
+		assertThat(timer("repository", "BookRepository", "existsByIsbn", "none").count()).isEqualTo(1);
+		assertThat(timer("repository", "BookRepository", "findByIsbn", "none").count()).isEqualTo(1);
+		assertThat(timer("repository", "BookRepository", "findAll(Example,Pageable)", "none").count()).isEqualTo(1);
+		assertThat(timer("repository", "BookRepository", "findAll(Pageable)", "none").count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Não deve medir cada chamada de mapper.")
+	public void mapperNotTimedTest() {
+		//cenário
+		AspectJProxyFactory factory = new AspectJProxyFactory(new DirectBookMapper());
+		factory.addAspect(new MethodMetricsAspect(registry));
+		BookMapper mapper = factory.getProxy();
+
+		//execução
+		mapper.toDto(Book.builder().id(1L).build());
+
+		//verificação
+		assertThat(registry.find(MethodMetricsAspect.METRIC).tag("layer", "mapper").timers()).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve marcar com a exceção as chamadas de serviço que falharam.")
+	public void exceptionTagTest() {
+		//cenário
+		AspectJProxyFactory factory = new AspectJProxyFactory(new FailingLoanService());
+		factory.addAspect(new MethodMetricsAspect(registry));
+		LoanService service = factory.getProxy();
+
+		//execução
+		Throwable exception = catchThrowable(() -> service.save(new Loan()));
+
+		//verificação
+		assertThat(exception).isInstanceOf(BusinessException.class);
+		assertThat(timer("service", "FailingLoanService", "save", "BusinessException").count()).isEqualTo(1);
+	}
+
+	private Timer timer(String layer, String type, String method, String exception) {
+		return registry.get(MethodMetricsAspect.METRIC)
+				.tags("layer", layer, "class", type, "method", method, "exception", exception)
+				.timer();
+	}
+
+	static class FailingLoanService implements LoanService {
+		@Override
+		public Loan save(Loan loan) {
+			throw new BusinessException("Livro já emprestado.");
+		}
+
+		@Override
+		public List<Loan> saveAll(List<Loan> loans, BiConsumer<Loan, BusinessException> rejected) {
+			throw new BusinessException("Livro já emprestado.");
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package br.com.library.metrics;
+
+import br.com.library.model.entity.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlowQueryTracerTest {
+
+	static String FETCH_SQL = "select book0_.id as id1_0_ from book book0_ where lower(book0_.title) like ? limit ?";
+	static String COUNT_SQL = "select count(book0_.id) as col_0_0_ from book book0_ where lower(book0_.title) like ?";
+
+	@Test
+	@DisplayName("Deve registrar o SQL, os tempos e as linhas de uma busca acima do limite.")
+	public void recordSlowQueryTest() {
+		//cenário
+		SlowQueryTracer tracer = new SlowQueryTracer(Duration.ZERO, 10, new ObjectMapper().findAndRegisterModules());
+		Book filter = Book.builder().title("aventuras").author("fulano").build();
+		List<Book> content = Arrays.asList(Book.builder().id(1L).build(), Book.builder().id(2L).build());
+
+		//execução
+		try (SlowQueryTracer.Span span = tracer.start("find", filter, PageRequest.of(0, 2))) {
+			tracer.inspect(FETCH_SQL);
+			tracer.inspect(COUNT_SQL);
+			span.fetched(new PageImpl<>(content, PageRequest.of(0, 2), 30));
+			span.mapped();
+		}
+
+		//verificação
+		assertThat(tracer.recent()).hasSize(1);
+		SlowQuery slowQuery = tracer.recent().get(0);
+		assertThat(slowQuery.getOperation()).isEqualTo("find");
+		assertThat(slowQuery.getFilter()).isEqualTo("title+author");
+		assertThat(slowQuery.getRows()).isEqualTo(2);
+		assertThat(slowQuery.getTotalElements()).isEqualTo(30);
+		assertThat(slowQuery.getStatements()).extracting(SlowQuery.Statement::getKind).containsExactly("fetch", "count");
+		assertThat(slowQuery.getStatements()).extracting(SlowQuery.Statement::getSql).containsExactly(FETCH_SQL, COUNT_SQL);
+		assertThat(slowQuery.getTotalMillis())
+				.isGreaterThanOrEqualTo(slowQuery.getFetchMillis() + slowQuery.getCountMillis() + slowQuery.getMappingMillis());
+	}
+
+	@Test
+	@DisplayName("Não deve registrar buscas abaixo do limite nem SQL executado fora de uma busca.")
+	public void ignoreFastQueryTest() {
+		//cenário
+		SlowQueryTracer tracer = new SlowQueryTracer(Duration.ofMinutes(1), 10, new ObjectMapper());
+
+		//execução
+		tracer.inspect(FETCH_SQL);
+		try (SlowQueryTracer.Span span = tracer.start("find", new Book(), PageRequest.of(0, 10))) {
+			tracer.inspect(FETCH_SQL);
+		}
+
+		//verificação
+		assertThat(tracer.recent()).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve manter apenas as buscas lentas mais recentes.")
+	public void boundedBufferTest() {
+		//cenário
+		SlowQueryTracer tracer = new SlowQueryTracer(Duration.ZERO, 2, new ObjectMapper().findAndRegisterModules());
+
+		//execução
+		for (String title : Arrays.asList("a", "b", "c")) {
+			tracer.start(title, new Book(), PageRequest.of(0, 10)).close();
+		}
+
+		//verificação
+		assertThat(tracer.recent()).extracting(SlowQuery::getOperation).containsExactly("c", "b");
+	}
+}
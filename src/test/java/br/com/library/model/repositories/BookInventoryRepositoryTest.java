@@ -0,0 +1,76 @@
+package br.com.library.model.repositories;
+
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.BookInventory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class BookInventoryRepositoryTest {
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Autowired
+	BookInventoryRepository repository;
+
+	@Test
+	@DisplayName("Deve reservar exemplares enquanto houver saldo, sem deixar o saldo negativo.")
+	public void reserveTest() {
+		//cenário
+		Long bookId = createInventory(2, 2);
+
+		//execução
+		int first = repository.reserve(bookId);
+		int second = repository.reserve(bookId);
+		int third = repository.reserve(bookId);
+
+		//verificação
+		assertThat(first).isEqualTo(1);
+		assertThat(second).isEqualTo(1);
+		assertThat(third).isZero();
+		entityManager.clear();
+		assertThat(repository.findById(bookId)).get().extracting(BookInventory::getAvailable).isEqualTo(0);
+	}
+
+	@Test
+	@DisplayName("Não deve reservar exemplar de livro sem estoque cadastrado.")
+	public void reserveWithoutInventoryTest() {
+		assertThat(repository.reserve(999L)).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve alterar a quantidade de exemplares mantendo os emprestados, e recusar menos que os emprestados.")
+	public void resizeTest() {
+		//cenário
+		Long bookId = createInventory(5, 2);
+
+		//execução
+		int grown = repository.resize(bookId, 8);
+		int belowLoaned = repository.resize(bookId, 2);
+
+		//verificação
+		assertThat(grown).isEqualTo(1);
+		assertThat(belowLoaned).isZero();
+		BookInventory inventory = repository.findById(bookId).get();
+		assertThat(inventory.getCopies()).isEqualTo(8);
+		assertThat(inventory.getAvailable()).isEqualTo(5);
+	}
+
+	private Long createInventory(int copies, int available) {
+		Book book = entityManager.persist(Book.builder().author("Eduardo").title("Titulo").isbn("123").build());
+		entityManager.persistAndFlush(BookInventory.builder().bookId(book.getId()).copies(copies).available(available).build());
+		return book.getId();
+	}
+
+}
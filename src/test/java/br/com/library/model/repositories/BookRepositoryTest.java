@@ -1,18 +1,31 @@
 package br.com.library.model.repositories;
 
+import br.com.library.api.dtos.BookDTO;
 import br.com.library.model.entity.Book;
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.PersistenceException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -54,6 +67,121 @@ public class BookRepositoryTest {
 		assertThat(exists).isFalse();
 	}
 
+	@Test
+	@DisplayName("Deve obter um livro pelo isbn.")
+	public void findByIsbnTest() {
+		//cenário
+		Book book = createBook();
+		entityManager.persist(book);
+
+		//execução
+		Optional<Book> foundBook = repository.findByIsbn("123");
+
+		//verificação
+		assertThat(foundBook).contains(book);
+	}
+
+	@Test
+	@DisplayName("Não deve permitir dois livros com o mesmo isbn.")
+	public void uniqueIsbnTest() {
+		//cenário
+		entityManager.persistAndFlush(createBook());
+
+		//execução
+		Throwable exception = catchThrowable(() -> entityManager.persistAndFlush(createBook()));
+
+		//verificação
+		assertThat(exception).isInstanceOf(PersistenceException.class);
+	}
+
+	@Test
+	@DisplayName("Deve percorrer os livros que atendem ao filtro.")
+	public void streamAllTest() {
+		//cenário
+		entityManager.persist(createBook());
+		entityManager.persist(Book.builder().author("Fulano").title("Outro").isbn("456").build());
+
+		//execução
+		List<Book> books;
+		try (Stream<Book> stream = repository.streamAll(null, null, "%edu%", null)) {
+			books = stream.collect(Collectors.toList());
+		}
+
+		//verificação
+		assertThat(books).extracting(Book::getIsbn).containsExactly("123");
+	}
+
+	@Test
+	@DisplayName("Deve projetar a página de livros direto em DTOs, sem carregar entidades.")
+	public void findDtosTest() {
+		//cenário
+		entityManager.persist(createBook());
+		Book second = entityManager.persist(Book.builder().author("Eduardo").title("Outro").isbn("456").build());
+		entityManager.persist(Book.builder().author("Fulano").title("Mais um").isbn("789").build());
+		entityManager.flush();
+		entityManager.clear();
+
+		//execução
+		List<BookDTO> books = repository.findDtos(null, null, "%eduardo%", null, PageRequest.of(0, 1, Sort.by("title")));
+
+		//verificação
+		assertThat(books).containsExactly(
+				new BookDTO(second.getId(), "Outro", "Eduardo", "456", 0L));
+		assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve tratar os curingas escapados como literais, na consulta e na contagem.")
+	public void escapedWildcardsTest() {
+		//cenário
+		Book percent = entityManager.persist(Book.builder().author("Fulano").title("100% Java").isbn("456").build());
+		entityManager.persist(Book.builder().author("Fulano").title("1000 Java").isbn("789").build());
+
+		//execução
+		List<BookDTO> books = repository.findDtos(null, "%100\\%%", null, null, PageRequest.of(0, 10));
+		long count = repository.countMatching(null, "%100\\%%", null, null);
+
+		//verificação
+		assertThat(books).extracting(BookDTO::getId).containsExactly(percent.getId());
+		assertThat(count).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve filtrar pelo id junto com os demais filtros, na consulta e na contagem.")
+	public void idFilterTest() {
+		//cenário
+		Book first = entityManager.persist(createBook());
+		entityManager.persist(Book.builder().author("Eduardo").title("Outro").isbn("456").build());
+
+		//execução
+		List<BookDTO> books = repository.findDtos(first.getId(), null, "%eduardo%", null, PageRequest.of(0, 10));
+		long count = repository.countMatching(first.getId(), null, "%eduardo%", null);
+
+		//verificação
+		assertThat(books).extracting(BookDTO::getId).containsExactly(first.getId());
+		assertThat(count).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve projetar em DTOs apenas os ids candidatos e a página seguinte ao id informado.")
+	public void findCandidateDtosAndDtosAfterTest() {
+		//cenário
+		Book first = entityManager.persist(createBook());
+		Book second = entityManager.persist(Book.builder().author("Eduardo").title("Outro").isbn("456").build());
+		Book third = entityManager.persist(Book.builder().author("Eduardo").title("Mais um").isbn("789").build());
+
+		//execução
+		Page<BookDTO> candidates = repository.findCandidateDtos(Arrays.asList(first.getId(), second.getId()), null,
+				"%outro%", null, null, PageRequest.of(0, 10));
+		Slice<BookDTO> slice = repository.findDtosAfter(second.getId(), null, null, "%eduardo%", null, PageRequest.of(0, 1));
+
+		//verificação
+		assertThat(candidates.getContent()).extracting(BookDTO::getId).containsExactly(second.getId());
+		assertThat(candidates.getTotalElements()).isEqualTo(1);
+		assertThat(slice.getContent()).extracting(BookDTO::getId).containsExactly(third.getId());
+		assertThat(slice.hasNext()).isFalse();
+	}
+
 	@Test
 	@DisplayName("Deve obter um livro por id.")
 	public void findByIdTest() {
@@ -100,6 +228,24 @@ public class BookRepositoryTest {
 
 	}
 
+	@Test
+	@DisplayName("Não deve salvar um livro com uma versão desatualizada.")
+	public void saveStaleVersionTest() {
+		//cenário
+		Book book = entityManager.persistFlushFind(createBook());
+		entityManager.detach(book);
+		Book stale = Book.builder().id(book.getId()).author("Beltrano").title("Titulo").isbn("123")
+				.version(book.getVersion()).build();
+		book.setTitle("Novo título");
+		repository.saveAndFlush(book);
+
+		//execução
+		Throwable exception = catchThrowable(() -> repository.saveAndFlush(stale));
+
+		//verificação
+		assertThat(exception).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+	}
+
 	private Book createBook() {
 		return Book.builder().author("Eduardo").title("Titulo").isbn("123").build();
 	}
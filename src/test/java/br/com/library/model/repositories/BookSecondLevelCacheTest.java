@@ -0,0 +1,154 @@
+package br.com.library.model.repositories;
+
+import br.com.library.model.entity.Book;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=true",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.library.model.repositories.BookSecondLevelCacheTest$RecordingInspector"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+public class BookSecondLevelCacheTest {
+
+	@Autowired
+	BookRepository repository;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	Statistics statistics;
+
+	@BeforeEach
+	public void setUp() {
+		repository.deleteAll();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		RecordingInspector.STATEMENTS.clear();
+	}
+
+	@Test
+	@DisplayName("Deve ler do cache de segundo nível um livro já carregado, sem ir ao banco.")
+	public void findByIdFromCacheTest() {
+		//cenário
+		Long id = repository.save(Book.builder().isbn("123").title("As Aventuras").author("Fulano").build()).getId();
+		statistics.clear();
+
+		//execução
+		repository.findById(id);
+		repository.findById(id);
+
+		//verificação
+		assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve invalidar o livro em cache quando ele for alterado.")
+	public void updateInvalidatesCacheTest() {
+		//cenário
+		Book book = repository.save(Book.builder().isbn("123").title("As Aventuras").author("Fulano").build());
+		repository.findById(book.getId());
+
+		//execução
+		book.setTitle("Novo título");
+		repository.save(book);
+
+		//verificação
+		assertThat(repository.findById(book.getId())).hasValueSatisfying(found ->
+				assertThat(found.getTitle()).isEqualTo("Novo título"));
+	}
+
+	@Test
+	@DisplayName("Deve responder existsByIsbn pelo cache de consultas até a próxima escrita na tabela.")
+	public void existsByIsbnQueryCacheTest() {
+		//cenário
+		repository.save(Book.builder().isbn("123").title("As Aventuras").author("Fulano").build());
+		statistics.clear();
+
+		//execução
+		boolean first = repository.existsByIsbn("123");
+		boolean second = repository.existsByIsbn("123");
+		repository.save(Book.builder().isbn("456").title("Outro").author("Beltrano").build());
+		boolean afterWrite = repository.existsByIsbn("456");
+
+		//verificação
+		assertThat(first).isTrue();
+		assertThat(second).isTrue();
+		assertThat(afterWrite).isTrue();
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+		assertThat(statistics.getQueryCacheMissCount()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Deve responder findByIsbn pelo cache de consultas e o livro pelo cache de segundo nível, sem ir ao banco.")
+	public void findByIsbnQueryCacheTest() {
+		//cenário
+		Long id = repository.save(Book.builder().isbn("123").title("As Aventuras").author("Fulano").build()).getId();
+		repository.findByIsbn("123");
+		statistics.clear();
+		RecordingInspector.STATEMENTS.clear();
+
+		//execução
+		Optional<Book> found = repository.findByIsbn("123");
+
+		//verificação
+		assertThat(found.map(Book::getId)).contains(id);
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+		assertThat(RecordingInspector.STATEMENTS).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve alterar um livro em cache com um único UPDATE, apenas das colunas alteradas.")
+	public void narrowUpdateWithoutSelectTest() {
+		//cenário
+		Book book = repository.save(Book.builder().isbn("123").title("As Aventuras").author("Fulano").build());
+		repository.findById(book.getId());
+		RecordingInspector.STATEMENTS.clear();
+
+		//execução
+		book.setTitle("Novo título");
+		repository.save(book);
+
+		//verificação
+		assertThat(RecordingInspector.STATEMENTS).hasSize(1);
+		assertThat(RecordingInspector.STATEMENTS.get(0))
+				.startsWith("update book set title=?, version=? where")
+				.doesNotContain("author")
+				.doesNotContain("isbn");
+	}
+
+	public static class RecordingInspector implements StatementInspector {
+
+		static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			STATEMENTS.add(sql);
+			return sql;
+		}
+	}
+}
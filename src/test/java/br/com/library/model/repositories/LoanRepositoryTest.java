@@ -0,0 +1,67 @@
+package br.com.library.model.repositories;
+
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.Loan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class LoanRepositoryTest {
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Autowired
+	LoanRepository repository;
+
+	@Test
+	@DisplayName("Deve contar os empréstimos não devolvidos do livro.")
+	public void countByBookAndNotReturnedTest() {
+		//cenário
+		Book book = createBook();
+		entityManager.persist(book);
+		entityManager.persist(createLoan(book, false));
+
+		//execução
+		long onLoan = repository.countByBookAndReturnedFalse(book);
+
+		//verificação
+		assertThat(onLoan).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve ignorar empréstimos devolvidos.")
+	public void returnedLoanTest() {
+		//cenário
+		Book book = createBook();
+		entityManager.persist(book);
+		entityManager.persist(createLoan(book, true));
+
+		//execução
+		long onLoan = repository.countByBookAndReturnedFalse(book);
+
+		//verificação
+		assertThat(onLoan).isZero();
+	}
+
+	private Book createBook() {
+		return Book.builder().author("Eduardo").title("Titulo").isbn("123").build();
+	}
+
+	private Loan createLoan(Book book, boolean returned) {
+		return Loan.builder().book(book).customer("Fulano").loanDate(LocalDate.now()).returned(returned).build();
+	}
+
+}
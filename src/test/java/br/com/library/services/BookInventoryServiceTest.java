@@ -0,0 +1,108 @@
+package br.com.library.services;
+
+import br.com.library.exceptions.BusinessException;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.BookInventory;
+import br.com.library.model.repositories.BookInventoryRepository;
+import br.com.library.model.repositories.LoanRepository;
+import br.com.library.services.impl.BookInventoryServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class BookInventoryServiceTest {
+
+	BookInventoryService inventoryService;
+
+	@MockBean
+	BookInventoryRepository repository;
+
+	@MockBean
+	LoanRepository loanRepository;
+
+	Book book = Book.builder().id(1L).isbn("123").build();
+
+	@BeforeEach
+	public void setUp() {
+		this.inventoryService = new BookInventoryServiceImpl(repository, loanRepository);
+	}
+
+	@Test
+	@DisplayName("Deve cadastrar o estoque descontando os empréstimos em aberto do saldo.")
+	public void createInventoryTest() {
+		//cenário
+		Mockito.when(repository.resize(1L, 5)).thenReturn(0);
+		Mockito.when(repository.existsById(1L)).thenReturn(false);
+		Mockito.when(loanRepository.countByBookAndReturnedFalse(book)).thenReturn(1L);
+		Mockito.when(repository.save(Mockito.any(BookInventory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		//execução
+		BookInventory inventory = inventoryService.setCopies(book, 5);
+
+		//verificação
+		assertThat(inventory.getBookId()).isEqualTo(1L);
+		assertThat(inventory.getCopies()).isEqualTo(5);
+		assertThat(inventory.getAvailable()).isEqualTo(4);
+	}
+
+	@Test
+	@DisplayName("Deve alterar a quantidade de um estoque existente pelo UPDATE condicional.")
+	public void resizeInventoryTest() {
+		//cenário
+		BookInventory resized = BookInventory.builder().bookId(1L).copies(8).available(6).build();
+		Mockito.when(repository.resize(1L, 8)).thenReturn(1);
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(resized));
+
+		//execução
+		BookInventory inventory = inventoryService.setCopies(book, 8);
+
+		//verificação
+		assertThat(inventory).isSameAs(resized);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(BookInventory.class));
+	}
+
+	@Test
+	@DisplayName("Deve lançar erro de negócio ao informar menos exemplares que os emprestados.")
+	public void tooFewCopiesTest() {
+		//cenário
+		Mockito.when(repository.resize(1L, 1)).thenReturn(0);
+		Mockito.when(repository.existsById(1L)).thenReturn(true);
+
+		//execução
+		Throwable exception = Assertions.catchThrowable(() -> inventoryService.setCopies(book, 1));
+
+		//verificação
+		assertThat(exception)
+				.isInstanceOf(BusinessException.class)
+				.hasMessage("Há mais exemplares emprestados que a quantidade informada.");
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(BookInventory.class));
+	}
+
+	@Test
+	@DisplayName("Deve cadastrar o estoque padrão de um exemplar, contando os empréstimos em aberto.")
+	public void createDefaultInventoryTest() {
+		//cenário
+		Mockito.when(loanRepository.countByBookAndReturnedFalse(book)).thenReturn(0L, 2L);
+
+		//execução
+		inventoryService.createDefault(book);
+		inventoryService.createDefault(book);
+
+		//verificação
+		Mockito.verify(repository).insert(1L, 1, 1);
+		Mockito.verify(repository).insert(1L, 2, 0);
+	}
+
+}
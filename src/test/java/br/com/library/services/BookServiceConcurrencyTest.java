@@ -0,0 +1,78 @@
+package br.com.library.services;
+
+import br.com.library.exceptions.BusinessException;
+import br.com.library.model.entity.Book;
+import br.com.library.model.repositories.BookRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:book-concurrency")
+public class BookServiceConcurrencyTest {
+
+	static final int THREADS = 16;
+
+	@Autowired
+	BookService bookService;
+
+	@Autowired
+	BookRepository repository;
+
+	@Test
+	@DisplayName("Deve cadastrar apenas um livro quando várias requisições concorrentes usarem o mesmo isbn.")
+	public void concurrentSaveSameIsbnTest() throws Exception {
+		//cenário
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Book>> results = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			String title = "Título " + i;
+			results.add(executor.submit(() -> {
+				start.await();
+				return bookService.save(Book.builder().isbn("concorrente").title(title).author("Fulano").build());
+			}));
+		}
+
+		//execução
+		start.countDown();
+		int saved = 0;
+		int rejected = 0;
+		try {
+			for (Future<Book> result : results) {
+				try {
+					result.get(30, TimeUnit.SECONDS);
+					saved++;
+				} catch (ExecutionException exception) {
+					assertThat(exception.getCause())
+							.isInstanceOf(BusinessException.class)
+							.hasMessage("ISBN já cadastrado.");
+					rejected++;
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		//verificação
+		assertThat(saved).isEqualTo(1);
+		assertThat(rejected).isEqualTo(THREADS - 1);
+		assertThat(repository.findByIsbn("concorrente")).isPresent();
+	}
+}
@@ -1,26 +1,45 @@
 package br.com.library.services;
 
+import br.com.library.api.dtos.BookDTO;
 import br.com.library.exceptions.BusinessException;
 import br.com.library.model.entity.Book;
 import br.com.library.model.repositories.BookRepository;
+import br.com.library.services.cache.BookReadCoalescer;
+import br.com.library.services.cache.BookVersionCache;
+import br.com.library.services.cache.IsbnCache;
+import br.com.library.services.events.BookChangedEvent;
 import br.com.library.services.impl.BookServiceImpl;
+import br.com.library.services.search.BookNgramIndex;
 import org.assertj.core.api.Assertions;
+import org.hibernate.CacheMode;
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -33,9 +52,19 @@ public class BookServiceTest {
 	@MockBean
 	BookRepository repository;
 
+	@MockBean
+	EntityManager entityManager;
+
+	@MockBean
+	ApplicationEventPublisher eventPublisher;
+
+	IsbnCache isbnCache;
+
 	@BeforeEach
 	public void setUp() {
-		this.bookService = new BookServiceImpl(repository);
+		this.isbnCache = new IsbnCache(100, Duration.ofHours(1), Duration.ofSeconds(30));
+		this.bookService = new BookServiceImpl(repository, isbnCache, entityManager, eventPublisher,
+				new BookNgramIndex(false, 1000), new BookReadCoalescer(new BookVersionCache(100), false), 3, 100);
 	}
 
 
@@ -44,9 +73,8 @@ public class BookServiceTest {
 	public void saveBookTest() {
 		//cenário
 		Book book = createValidBook();
-		Mockito.when( repository.existsByIsbn(Mockito.anyString()) ).thenReturn(false);
 
-		Mockito.when(repository.save(book)).thenReturn(Book.builder()
+		Mockito.when(repository.saveAndFlush(book)).thenReturn(Book.builder()
 				.id(1L)
 				.isbn("1234")
 				.title("Teste")
@@ -61,6 +89,44 @@ public class BookServiceTest {
 		assertThat(savedBook.getIsbn()).isEqualTo("1234");
 		assertThat(savedBook.getAuthor()).isEqualTo("Fulano");
 		assertThat(savedBook.getTitle()).isEqualTo("Teste");
+		Mockito.verify(repository, Mockito.never()).findByIsbn(Mockito.anyString());
+	}
+
+	@Test
+	@DisplayName("Deve salvar em lote apenas os livros com isbn ainda não cadastrado.")
+	public void saveAllBooksTest() {
+		//cenário
+		Book existing = Book.builder().isbn("1").title("Teste").author("Fulano").build();
+		Book newBook = Book.builder().isbn("2").title("Teste").author("Fulano").build();
+		Book repeated = Book.builder().isbn("2").title("Outro").author("Fulano").build();
+		Mockito.when(repository.findExistingIsbns(Mockito.anyCollection())).thenReturn(Collections.singleton("1"));
+		Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		//execução
+		List<Book> savedBooks = bookService.saveAll(Arrays.asList(existing, newBook, repeated));
+
+		//verificação
+		assertThat(savedBooks).containsExactly(newBook);
+	}
+
+	@Test
+	@DisplayName("Deve lançar erro de negócio quando outra requisição cadastrar o mesmo isbn durante o lote.")
+	public void saveAllDuplicatedIsbnRaceTest() {
+		//cenário
+		Book book = createValidBook();
+		Mockito.when(repository.findExistingIsbns(Mockito.anyCollection())).thenReturn(Collections.emptySet());
+		Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		Mockito.doThrow(new DataIntegrityViolationException("could not execute batch",
+				new ConstraintViolationException("Unique index or primary key violation", null, "PUBLIC.UX_BOOK_ISBN_INDEX_1")))
+				.when(repository).flush();
+
+		//execução
+		Throwable exception = Assertions.catchThrowable(() -> bookService.saveAll(Collections.singletonList(book)));
+
+		//verificação
+		assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("ISBN já cadastrado.");
+		Mockito.verify(eventPublisher, Mockito.never()).publishEvent(Mockito.any());
+		assertThat(isbnCache.size()).isZero();
 	}
 
 	private Book createValidBook() {
@@ -72,7 +138,8 @@ public class BookServiceTest {
 	public void shouldNotSaveABookWithDuplicatedISBN() {
 		//cenário
 		Book book = createValidBook();
-		Mockito.when( repository.existsByIsbn(Mockito.anyString()) ).thenReturn(true);
+		Mockito.when(repository.saveAndFlush(book)).thenThrow(new DataIntegrityViolationException("could not execute statement",
+				new ConstraintViolationException("Unique index or primary key violation", null, "PUBLIC.UX_BOOK_ISBN_INDEX_1")));
 
 		//execução
 		Throwable exception = Assertions.catchThrowable(() -> bookService.save(book));
@@ -81,8 +148,23 @@ public class BookServiceTest {
 		assertThat(exception)
 				.isInstanceOf(BusinessException.class)
 				.hasMessage("ISBN já cadastrado.");
+		Mockito.verify(eventPublisher, Mockito.never()).publishEvent(Mockito.any());
+	}
 
-		Mockito.verify(repository, Mockito.never()).save(book);
+	@Test
+	@DisplayName("Deve propagar violações de integridade que não sejam do isbn.")
+	public void shouldPropagateOtherIntegrityViolations() {
+		//cenário
+		Book book = createValidBook();
+		DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+				new ConstraintViolationException("NULL not allowed", null, null));
+		Mockito.when(repository.saveAndFlush(book)).thenThrow(violation);
+
+		//execução
+		Throwable exception = Assertions.catchThrowable(() -> bookService.save(book));
+
+		//verificação
+		assertThat(exception).isSameAs(violation);
 	}
 
 	@Test
@@ -181,6 +263,45 @@ public class BookServiceTest {
 		assertThat(book.getAuthor()).isEqualTo(updatedBook.getAuthor());
 	}
 
+	@Test
+	@DisplayName("Deve reaplicar as alterações sobre a versão atual quando houver conflito de versão.")
+	public void mergeRetriesOnConflictTest() {
+		//cenário
+		Book stale = Book.builder().id(1L).title("Antigo").author("Fulano").isbn("123").version(1L).build();
+		Book current = Book.builder().id(1L).title("Antigo").author("Beltrano").isbn("123").version(2L).build();
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(stale), Optional.of(current));
+		Mockito.when(repository.save(Mockito.any(Book.class)))
+				.thenThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+
+		//execução
+		Optional<Book> book = bookService.merge(1L, changes -> changes.setTitle("Novo"));
+
+		//verificação
+		assertThat(book).hasValueSatisfying(merged -> {
+			assertThat(merged.getTitle()).isEqualTo("Novo");
+			assertThat(merged.getAuthor()).isEqualTo("Beltrano");
+			assertThat(merged.getVersion()).isEqualTo(2L);
+		});
+		Mockito.verify(repository, Mockito.times(2)).save(Mockito.any(Book.class));
+	}
+
+	@Test
+	@DisplayName("Deve propagar o conflito de versão depois de esgotar as tentativas.")
+	public void mergeGivesUpAfterMaxRetriesTest() {
+		//cenário
+		Mockito.when(repository.findById(1L)).thenAnswer(invocation -> Optional.of(Book.builder().id(1L).version(1L).build()));
+		Mockito.when(repository.save(Mockito.any(Book.class)))
+				.thenThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+		//execução
+		Throwable exception = Assertions.catchThrowable(() -> bookService.merge(1L, changes -> changes.setTitle("Novo")));
+
+		//verificação
+		assertThat(exception).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+		Mockito.verify(repository, Mockito.times(4)).save(Mockito.any(Book.class));
+	}
+
 	@Test
 	@DisplayName("Deve filtrar livros pelas propriedades.")
 	public void findBookTest() {
@@ -200,4 +321,178 @@ public class BookServiceTest {
 		assertThat(result.getPageable().getPageSize()).isEqualTo(10);
 	}
 
+	@Test
+	@DisplayName("Deve filtrar livros pela projeção em DTOs, com os filtros em minúsculas.")
+	public void findDtosTest() {
+		//cenário
+		PageRequest pageRequest = PageRequest.of(1, 2);
+		List<BookDTO> books = Arrays.asList(new BookDTO(3L, "Teste", "Fulano", "1234", 0L), new BookDTO(4L, "Outro", "Fulano", "5678", 0L));
+		Mockito.when(repository.findDtos(null, null, "%fulano%", null, pageRequest)).thenReturn(books);
+		Mockito.when(repository.countMatching(null, null, "%fulano%", null)).thenReturn(5L);
+
+		//execução
+		Page<BookDTO> result = bookService.findDtos(Book.builder().author("FULANO").build(), pageRequest);
+
+		//verificação
+		assertThat(result.getContent()).isEqualTo(books);
+		assertThat(result.getTotalElements()).isEqualTo(5);
+	}
+
+	@Test
+	@DisplayName("Deve procurar literalmente os curingas do LIKE digitados no filtro.")
+	public void findDtosEscapesWildcardsTest() {
+		//cenário
+		PageRequest pageRequest = PageRequest.of(0, 10);
+
+		//execução
+		bookService.findDtos(Book.builder().title("100%_C\\").build(), pageRequest);
+
+		//verificação
+		Mockito.verify(repository).findDtos(null, "%100\\%\\_c\\\\%", null, null, pageRequest);
+	}
+
+	@Test
+	@DisplayName("Não deve contar os livros quando a página já revelar o total.")
+	public void findDtosWithoutCountTest() {
+		//cenário
+		PageRequest pageRequest = PageRequest.of(0, 10);
+		List<BookDTO> books = Collections.singletonList(new BookDTO(1L, "Teste", "Fulano", "1234", 0L));
+		Mockito.when(repository.findDtos(null, null, null, null, pageRequest)).thenReturn(books);
+
+		//execução
+		Page<BookDTO> result = bookService.findDtos(new Book(), pageRequest);
+
+		//verificação
+		assertThat(result.getTotalElements()).isEqualTo(1);
+		Mockito.verify(repository, Mockito.never()).countMatching(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve obter um livro pelo isbn consultando o banco apenas uma vez.")
+	public void getBookByIsbnTest() {
+		//cenário
+		String isbn = "1234";
+		Book book = createValidBook();
+		book.setId(1L);
+		Mockito.when(repository.findByIsbn(isbn)).thenReturn(Optional.of(book));
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(book));
+
+		//execução
+		Optional<Book> firstLookup = bookService.getBookByIsbn(isbn);
+		Optional<Book> foundBook = bookService.getBookByIsbn(isbn);
+
+		//verificação
+		assertThat(firstLookup).contains(book);
+		assertThat(foundBook).contains(book);
+		Mockito.verify(repository, Mockito.times(1)).findByIsbn(isbn);
+		Mockito.verify(repository, Mockito.times(1)).findById(1L);
+	}
+
+	@Test
+	@DisplayName("Deve manter em cache os isbns inexistentes.")
+	public void getBookByUnknownIsbnTest() {
+		//cenário
+		String isbn = "1234";
+		Mockito.when(repository.findByIsbn(isbn)).thenReturn(Optional.empty());
+
+		//execução
+		bookService.getBookByIsbn(isbn);
+		Optional<Book> foundBook = bookService.getBookByIsbn(isbn);
+
+		//verificação
+		assertThat(foundBook).isEmpty();
+		Mockito.verify(repository, Mockito.times(1)).findByIsbn(isbn);
+		Mockito.verify(repository, Mockito.never()).findById(Mockito.anyLong());
+	}
+
+	@Test
+	@DisplayName("Deve invalidar o cache de isbn ao deletar um livro.")
+	public void deleteInvalidatesIsbnCacheTest() {
+		//cenário
+		Book book = createValidBook();
+		book.setId(1L);
+		Mockito.when(repository.saveAndFlush(book)).thenReturn(book);
+		bookService.save(book);
+
+		//execução
+		bookService.delete(book);
+
+		//verificação
+		assertThat(isbnCache.getId(book.getIsbn(), isbn -> Optional.empty())).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve filtrar livros apenas entre os candidatos do índice de trigramas.")
+	public void findBookByNgramIndexTest() {
+		//cenário
+		BookNgramIndex ngramIndex = new BookNgramIndex(true, 1000);
+		bookService = new BookServiceImpl(repository, isbnCache, entityManager, eventPublisher, ngramIndex,
+				new BookReadCoalescer(new BookVersionCache(100), false), 3, 100);
+		Book book = createValidBook();
+		book.setId(7L);
+		ngramIndex.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.SAVED, Collections.singletonList(book)));
+		PageRequest pageRequest = PageRequest.of(0, 10);
+		BookDTO dto = new BookDTO(7L, book.getTitle(), book.getAuthor(), book.getIsbn(), 0L);
+		Page<BookDTO> page = new PageImpl<>(Collections.singletonList(dto), pageRequest, 1);
+		Mockito.when(repository.findCandidateDtos(Mockito.anyCollection(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+				Mockito.any(PageRequest.class))).thenReturn(page);
+
+		//execução
+		Page<BookDTO> result = bookService.findDtos(Book.builder().title("ESTE").build(), pageRequest);
+
+		//verificação
+		assertThat(result.getContent()).containsExactly(dto);
+		Mockito.verify(repository).findCandidateDtos(Collections.singletonList(7L), null, "%este%", null, null, pageRequest);
+		Mockito.verify(repository, Mockito.never()).findDtos(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Deve retornar página vazia sem consultar o banco quando nenhum livro contém o termo.")
+	public void findBookWithoutNgramCandidatesTest() {
+		//cenário
+		bookService = new BookServiceImpl(repository, isbnCache, entityManager, eventPublisher,
+				new BookNgramIndex(true, 1000), new BookReadCoalescer(new BookVersionCache(100), false), 3, 100);
+		PageRequest pageRequest = PageRequest.of(0, 10);
+
+		//execução
+		Page<BookDTO> result = bookService.findDtos(Book.builder().author("inexistente").build(), pageRequest);
+
+		//verificação
+		assertThat(result.getTotalElements()).isZero();
+		Mockito.verifyNoInteractions(repository);
+	}
+
+	@Test
+	@DisplayName("Deve obter vários livros por isbn, usando o cache e consultando os demais em lotes.")
+	@SuppressWarnings("unchecked")
+	public void getByIsbnsTest() {
+		//cenário
+		bookService = new BookServiceImpl(repository, isbnCache, entityManager, eventPublisher,
+				new BookNgramIndex(false, 1000), new BookReadCoalescer(new BookVersionCache(100), false), 3, 2);
+		Book cached = Book.builder().id(1L).isbn("1").build();
+		Book second = Book.builder().id(2L).isbn("2").build();
+		Book third = Book.builder().id(3L).isbn("3").build();
+		isbnCache.put("1", 1L);
+		Mockito.when(repository.findByIsbnIn(Mockito.anyCollection())).thenAnswer(invocation -> {
+			Collection<String> isbns = invocation.getArgument(0);
+			return Arrays.asList(second, third).stream().filter(book -> isbns.contains(book.getIsbn())).collect(Collectors.toList());
+		});
+		Session session = Mockito.mock(Session.class);
+		MultiIdentifierLoadAccess<Book> multiLoad = Mockito.mock(MultiIdentifierLoadAccess.class, Mockito.RETURNS_SELF);
+		Mockito.when(entityManager.unwrap(Session.class)).thenReturn(session);
+		Mockito.when(session.byMultipleIds(Book.class)).thenReturn(multiLoad);
+		Mockito.when(multiLoad.multiLoad(Mockito.anyList())).thenReturn(Arrays.asList(cached, second, third));
+
+		//execução
+		Map<String, Book> books = bookService.getByIsbns(Arrays.asList("1", "2", "3", "4"));
+
+		//verificação
+		assertThat(books).containsOnlyKeys("1", "2", "3");
+		Mockito.verify(repository, Mockito.times(2)).findByIsbnIn(Mockito.anyCollection());
+		Mockito.verify(multiLoad).with(CacheMode.NORMAL);
+		Mockito.verify(multiLoad).enableSessionCheck(true);
+		Mockito.verify(multiLoad).withBatchSize(2);
+		assertThat(isbnCache.getId("4", isbn -> Optional.of(4L))).isEmpty();
+	}
+
 }
@@ -0,0 +1,152 @@
+package br.com.library.services;
+
+import br.com.library.exceptions.BusinessException;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.BookInventory;
+import br.com.library.model.entity.Loan;
+import br.com.library.model.repositories.BookInventoryRepository;
+import br.com.library.model.repositories.LoanRepository;
+import br.com.library.services.batch.LoanBatcher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:loan-concurrency")
+public class LoanServiceConcurrencyTest {
+
+	static final int THREADS = 16;
+	static final int COPIES = 5;
+
+	@Autowired
+	LoanService loanService;
+
+	@Autowired
+	BookService bookService;
+
+	@Autowired
+	BookInventoryService inventoryService;
+
+	@Autowired
+	LoanRepository loanRepository;
+
+	@Autowired
+	BookInventoryRepository inventoryRepository;
+
+	@Test
+	@DisplayName("Deve emprestar exatamente a quantidade de exemplares quando vários empréstimos do mesmo livro chegarem juntos.")
+	public void concurrentLoansSameBookTest() throws Exception {
+		//cenário
+		Book book = createBook("lancamento");
+
+		//execução
+		int loaned = loanConcurrently(book, loanService::save);
+
+		//verificação
+		assertThat(loaned).isEqualTo(COPIES);
+		assertThat(loanRepository.countByBookAndReturnedFalse(book)).isEqualTo(COPIES);
+		assertThat(inventoryRepository.findById(book.getId()).get().getAvailable()).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve respeitar a quantidade de exemplares também com os empréstimos gravados em lotes.")
+	public void concurrentBatchedLoansSameBookTest() throws Exception {
+		//cenário
+		Book book = createBook("lancamento-lote");
+		LoanBatcher batcher = new LoanBatcher(loanService, true, THREADS, Duration.ofMillis(50), Duration.ofSeconds(10));
+		batcher.start();
+
+		//execução
+		int loaned;
+		try {
+			loaned = loanConcurrently(book, batcher::save);
+		} finally {
+			batcher.stop();
+		}
+
+		//verificação
+		assertThat(loaned).isEqualTo(COPIES);
+		assertThat(loanRepository.countByBookAndReturnedFalse(book)).isEqualTo(COPIES);
+		assertThat(inventoryRepository.findById(book.getId()).get().getAvailable()).isZero();
+	}
+
+	@Test
+	@DisplayName("Deve emprestar um único exemplar de um livro sem estoque cadastrado, mesmo com empréstimos simultâneos.")
+	public void concurrentLoansWithoutInventoryTest() throws Exception {
+		//cenário
+		Book book = bookService.save(Book.builder().isbn("sem-estoque").title("Lançamento").author("Fulano").build());
+
+		//execução
+		int loaned = loanConcurrently(book, loanService::save, "Livro já emprestado.");
+
+		//verificação
+		assertThat(loaned).isEqualTo(1);
+		assertThat(loanRepository.countByBookAndReturnedFalse(book)).isEqualTo(1);
+		assertThat(inventoryRepository.findById(book.getId()).get())
+				.extracting(BookInventory::getCopies, BookInventory::getAvailable)
+				.containsExactly(1, 0);
+	}
+
+	private Book createBook(String isbn) {
+		Book book = bookService.save(Book.builder().isbn(isbn).title("Lançamento").author("Fulano").build());
+		inventoryService.setCopies(book, COPIES);
+		return book;
+	}
+
+	private int loanConcurrently(Book book, Function<Loan, Loan> save) throws Exception {
+		return loanConcurrently(book, save, "Nenhum exemplar disponível.");
+	}
+
+	/**
+	 * Empresta o livro em {@value #THREADS} threads ao mesmo tempo e devolve quantos empréstimos foram gravados;
+	 * os demais devem ter sido recusados por falta de exemplar, com a mensagem informada.
+	 */
+	private int loanConcurrently(Book book, Function<Loan, Loan> save, String rejection) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Loan>> results = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			String customer = "Cliente " + i;
+			results.add(executor.submit(() -> {
+				start.await();
+				return save.apply(Loan.builder().book(book).customer(customer).loanDate(LocalDate.now()).build());
+			}));
+		}
+		start.countDown();
+		int loaned = 0;
+		try {
+			for (Future<Loan> result : results) {
+				try {
+					assertThat(result.get(30, TimeUnit.SECONDS).getId()).isNotNull();
+					loaned++;
+				} catch (ExecutionException exception) {
+					assertThat(exception.getCause())
+							.isInstanceOf(BusinessException.class)
+							.hasMessage(rejection);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return loaned;
+	}
+}
@@ -0,0 +1,205 @@
+package br.com.library.services;
+
+import br.com.library.exceptions.BusinessException;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.BookInventory;
+import br.com.library.model.entity.Loan;
+import br.com.library.model.repositories.BookInventoryRepository;
+import br.com.library.model.repositories.LoanRepository;
+import br.com.library.services.impl.LoanServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class LoanServiceTest {
+
+	LoanService loanService;
+
+	@MockBean
+	LoanRepository repository;
+
+	@MockBean
+	BookInventoryRepository inventoryRepository;
+
+	@MockBean
+	BookInventoryService inventoryService;
+
+	@BeforeEach
+	public void setUp() {
+		this.loanService = new LoanServiceImpl(repository, inventoryRepository, inventoryService,
+				Mockito.mock(PlatformTransactionManager.class), Duration.ofSeconds(10));
+	}
+
+	@Test
+	@DisplayName("Deve salvar um empréstimo.")
+	public void saveLoanTest() {
+		//cenário
+		Loan loan = createLoan();
+		Mockito.when(inventoryRepository.reserve(1L)).thenReturn(1);
+		Mockito.when(repository.save(loan)).thenAnswer(invocation -> {
+			Loan saved = invocation.getArgument(0);
+			saved.setId(1L);
+			return saved;
+		});
+
+		//execução
+		Loan savedLoan = loanService.save(loan);
+
+		//verificação
+		assertThat(savedLoan.getId()).isEqualTo(1L);
+		assertThat(savedLoan.getReturned()).isFalse();
+		assertThat(savedLoan.getCustomer()).isEqualTo("Fulano");
+	}
+
+	@Test
+	@DisplayName("Deve lançar erro de negócio ao emprestar um livro de exemplar único já emprestado.")
+	public void loanedBookSaveTest() {
+		//cenário
+		Loan loan = createLoan();
+		Mockito.when(inventoryRepository.reserve(1L)).thenReturn(0);
+		Mockito.when(inventoryRepository.existsById(1L)).thenReturn(true);
+		Mockito.when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory(1L, 1, 0)));
+
+		//execução
+		Throwable exception = Assertions.catchThrowable(() -> loanService.save(loan));
+
+		//verificação
+		assertThat(exception)
+				.isInstanceOf(BusinessException.class)
+				.hasMessage("Livro já emprestado.");
+		Mockito.verify(repository, Mockito.never()).save(loan);
+		Mockito.verify(inventoryService, Mockito.never()).createDefault(Mockito.any(Book.class));
+	}
+
+	@Test
+	@DisplayName("Deve reservar um exemplar antes de gravar o empréstimo.")
+	public void saveLoanWithInventoryTest() {
+		//cenário
+		Loan loan = createLoan();
+		Mockito.when(inventoryRepository.reserve(1L)).thenReturn(1);
+		Mockito.when(repository.save(loan)).thenReturn(loan);
+
+		//execução
+		Loan savedLoan = loanService.save(loan);
+
+		//verificação
+		assertThat(savedLoan).isSameAs(loan);
+		InOrder inOrder = Mockito.inOrder(repository, inventoryRepository);
+		inOrder.verify(inventoryRepository).reserve(1L);
+		inOrder.verify(repository).save(loan);
+		Mockito.verify(inventoryRepository, Mockito.never()).existsById(Mockito.anyLong());
+	}
+
+	@Test
+	@DisplayName("Deve lançar erro de negócio quando não houver exemplar disponível.")
+	public void noCopyAvailableSaveTest() {
+		//cenário
+		Loan loan = createLoan();
+		Mockito.when(inventoryRepository.reserve(1L)).thenReturn(0);
+		Mockito.when(inventoryRepository.existsById(1L)).thenReturn(true);
+		Mockito.when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory(1L, 5, 0)));
+
+		//execução
+		Throwable exception = Assertions.catchThrowable(() -> loanService.save(loan));
+
+		//verificação
+		assertThat(exception)
+				.isInstanceOf(BusinessException.class)
+				.hasMessage("Nenhum exemplar disponível.");
+	}
+
+	@Test
+	@DisplayName("Deve cadastrar o estoque padrão de um livro sem estoque e refazer a reserva.")
+	public void saveLoanCreatesInventoryTest() {
+		//cenário
+		Loan loan = createLoan();
+		Mockito.when(inventoryRepository.reserve(1L)).thenReturn(0, 1);
+		Mockito.when(inventoryRepository.existsById(1L)).thenReturn(false);
+		Mockito.doThrow(new DataIntegrityViolationException("estoque já cadastrado"))
+				.when(inventoryService).createDefault(loan.getBook());
+		Mockito.when(repository.save(loan)).thenReturn(loan);
+
+		//execução
+		Loan savedLoan = loanService.save(loan);
+
+		//verificação
+		assertThat(savedLoan).isSameAs(loan);
+		Mockito.verify(inventoryService).createDefault(loan.getBook());
+		Mockito.verify(inventoryRepository, Mockito.times(2)).reserve(1L);
+		Mockito.verify(repository, Mockito.times(1)).save(loan);
+	}
+
+	@Test
+	@DisplayName("Deve gravar um lote de empréstimos, recusando os que não têm exemplar ou já estão emprestados.")
+	public void saveAllLoansTest() {
+		//cenário
+		Book counted = Book.builder().id(1L).isbn("123").build();
+		Book single = Book.builder().id(2L).isbn("456").build();
+		Book lent = Book.builder().id(3L).isbn("789").build();
+		Loan first = createLoan(counted, "Fulano");
+		Loan noCopy = createLoan(counted, "Beltrano");
+		Loan singleCopy = createLoan(single, "Ciclano");
+		Loan sameSingleCopy = createLoan(single, "Sicrano");
+		Loan alreadyLent = createLoan(lent, "Fulana");
+		Mockito.when(inventoryRepository.findExistingIds(Mockito.anyCollection())).thenReturn(Collections.singleton(1L));
+		Mockito.when(inventoryRepository.reserve(1L)).thenReturn(1, 0);
+		Mockito.when(inventoryRepository.reserve(2L)).thenReturn(1, 0);
+		Mockito.when(inventoryRepository.reserve(3L)).thenReturn(0);
+		Mockito.when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory(1L, 5, 0)));
+		Mockito.when(inventoryRepository.findById(2L)).thenReturn(Optional.of(inventory(2L, 1, 0)));
+		Mockito.when(inventoryRepository.findById(3L)).thenReturn(Optional.of(inventory(3L, 1, 0)));
+		Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		Map<Loan, String> rejected = new HashMap<>();
+
+		//execução
+		List<Loan> saved = loanService.saveAll(Arrays.asList(first, noCopy, singleCopy, sameSingleCopy, alreadyLent),
+				(loan, exception) -> rejected.put(loan, exception.getMessage()));
+
+		//verificação
+		assertThat(saved).containsExactly(first, singleCopy);
+		assertThat(saved).extracting(Loan::getReturned).containsOnly(false);
+		assertThat(rejected)
+				.containsEntry(noCopy, "Nenhum exemplar disponível.")
+				.containsEntry(sameSingleCopy, "Livro já emprestado.")
+				.containsEntry(alreadyLent, "Livro já emprestado.")
+				.hasSize(3);
+		Mockito.verify(inventoryService).createDefault(single);
+		Mockito.verify(inventoryService).createDefault(lent);
+		Mockito.verify(inventoryService, Mockito.never()).createDefault(counted);
+	}
+
+	private Loan createLoan() {
+		return createLoan(Book.builder().id(1L).isbn("123").build(), "Fulano");
+	}
+
+	private Loan createLoan(Book book, String customer) {
+		return Loan.builder().book(book).customer(customer).loanDate(LocalDate.now()).build();
+	}
+
+	private BookInventory inventory(Long bookId, int copies, int available) {
+		return BookInventory.builder().bookId(bookId).copies(copies).available(available).build();
+	}
+
+}
@@ -0,0 +1,272 @@
+package br.com.library.services.batch;
+
+import br.com.library.exceptions.BusinessException;
+import br.com.library.model.entity.Book;
+import br.com.library.model.entity.Loan;
+import br.com.library.services.LoanService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class LoanBatcherTest {
+
+	static final int THREADS = 8;
+
+	LoanService loanService = Mockito.mock(LoanService.class);
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+	LoanBatcher batcher;
+
+	@AfterEach
+	public void tearDown() {
+		executor.shutdownNow();
+		if (batcher != null) {
+			batcher.stop();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve gravar empréstimos simultâneos em um único lote, entregando a cada chamador o seu resultado.")
+	public void groupConcurrentLoansTest() throws Exception {
+		//cenário
+		batcher = new LoanBatcher(loanService, true, THREADS, Duration.ofSeconds(5), Duration.ofSeconds(10));
+		batcher.start();
+		batcher.bindTo(registry);
+		AtomicLong ids = new AtomicLong();
+		Mockito.when(loanService.saveAll(Mockito.anyList(), Mockito.any())).thenAnswer(invocation -> {
+			List<Loan> loans = invocation.getArgument(0);
+			BiConsumer<Loan, BusinessException> rejected = invocation.getArgument(1);
+			List<Loan> saved = new ArrayList<>();
+			for (Loan loan : loans) {
+				if ("Cliente 0".equals(loan.getCustomer())) {
+					rejected.accept(loan, new BusinessException("Nenhum exemplar disponível."));
+				} else {
+					loan.setId(ids.incrementAndGet());
+					saved.add(loan);
+				}
+			}
+			return saved;
+		});
+
+		//execução
+		List<Future<Loan>> results = submitLoans();
+		int saved = 0;
+		int rejected = 0;
+		for (Future<Loan> result : results) {
+			try {
+				assertThat(result.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+				saved++;
+			} catch (ExecutionException exception) {
+				assertThat(exception.getCause()).isInstanceOf(BusinessException.class).hasMessage("Nenhum exemplar disponível.");
+				rejected++;
+			}
+		}
+
+		//verificação
+		assertThat(saved).isEqualTo(THREADS - 1);
+		assertThat(rejected).isEqualTo(1);
+		Mockito.verify(loanService, Mockito.times(1)).saveAll(Mockito.anyList(), Mockito.any());
+		Mockito.verify(loanService, Mockito.never()).save(Mockito.any(Loan.class));
+		DistributionSummary batchSizes = registry.get(LoanBatcher.METRIC).summary();
+		assertThat(batchSizes.count()).isEqualTo(1);
+		assertThat(batchSizes.totalAmount()).isEqualTo(THREADS);
+	}
+
+	@Test
+	@DisplayName("Deve gravar o lote depois do atraso máximo, mesmo sem completar o tamanho máximo.")
+	public void flushAfterMaxDelayTest() {
+		//cenário
+		batcher = new LoanBatcher(loanService, true, 100, Duration.ofMillis(5), Duration.ofSeconds(10));
+		batcher.start();
+		Loan loan = createLoan("Fulano");
+		Mockito.when(loanService.saveAll(Mockito.anyList(), Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		//execução
+		Loan saved = batcher.save(loan);
+
+		//verificação
+		assertThat(saved).isSameAs(loan);
+	}
+
+	@Test
+	@DisplayName("Quando a transação do lote falhar, deve gravar cada empréstimo separadamente.")
+	public void fallbackToSingleSaveTest() throws Exception {
+		//cenário
+		batcher = new LoanBatcher(loanService, true, THREADS, Duration.ofSeconds(5), Duration.ofSeconds(10));
+		batcher.start();
+		Mockito.when(loanService.saveAll(Mockito.anyList(), Mockito.any())).thenThrow(new IllegalStateException("lote inválido"));
+		Mockito.when(loanService.save(Mockito.any(Loan.class))).thenAnswer(invocation -> {
+			Loan loan = invocation.getArgument(0);
+			if ("Cliente 0".equals(loan.getCustomer())) {
+				throw new IllegalStateException("cliente inválido");
+			}
+			loan.setId(1L);
+			return loan;
+		});
+
+		//execução
+		List<Future<Loan>> results = submitLoans();
+		int saved = 0;
+		int failed = 0;
+		for (Future<Loan> result : results) {
+			try {
+				result.get(10, TimeUnit.SECONDS);
+				saved++;
+			} catch (ExecutionException exception) {
+				assertThat(exception.getCause()).hasMessage("cliente inválido");
+				failed++;
+			}
+		}
+
+		//verificação
+		assertThat(saved).isEqualTo(THREADS - 1);
+		assertThat(failed).isEqualTo(1);
+		Mockito.verify(loanService, Mockito.times(THREADS)).save(Mockito.any(Loan.class));
+	}
+
+	@Test
+	@DisplayName("Um Error no lote deve falhar só os empréstimos daquele lote, sem parar a gravação dos seguintes.")
+	public void errorFailsOnlyItsBatchTest() {
+		//cenário
+		batcher = new LoanBatcher(loanService, true, 1, Duration.ofMillis(2), Duration.ofSeconds(10));
+		batcher.start();
+		Loan first = createLoan("Fulano");
+		Loan second = createLoan("Beltrano");
+		Mockito.when(loanService.saveAll(Mockito.anyList(), Mockito.any()))
+				.thenThrow(new StackOverflowError("lote"))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+
+		//execução
+		Throwable exception = catchThrowable(() -> batcher.save(first));
+		Loan saved = batcher.save(second);
+
+		//verificação
+		assertThat(exception).isInstanceOf(StackOverflowError.class).hasMessage("lote");
+		assertThat(saved).isSameAs(second);
+		Mockito.verify(loanService, Mockito.times(2)).saveAll(Mockito.anyList(), Mockito.any());
+		Mockito.verify(loanService, Mockito.never()).save(Mockito.any(Loan.class));
+	}
+
+	@Test
+	@DisplayName("No tempo limite, deve gravar direto o empréstimo que ainda estava na fila e esperar o que já estava no lote.")
+	public void timeoutFallbackToSingleSaveTest() throws Exception {
+		//cenário
+		batcher = new LoanBatcher(loanService, true, 1, Duration.ofMillis(2), Duration.ofMillis(100));
+		batcher.start();
+		CountDownLatch flushing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Loan stuck = createLoan("Fulano");
+		Loan waiting = createLoan("Beltrano");
+		Mockito.when(loanService.saveAll(Mockito.anyList(), Mockito.any())).thenAnswer(invocation -> {
+			flushing.countDown();
+			release.await();
+			return invocation.getArgument(0);
+		});
+		Mockito.when(loanService.save(waiting)).thenReturn(waiting);
+		Future<Loan> first = executor.submit(() -> batcher.save(stuck));
+		assertThat(flushing.await(10, TimeUnit.SECONDS)).isTrue();
+
+		//execução
+		Loan saved = batcher.save(waiting);
+		Thread.sleep(200);
+		boolean waitedForBatch = !first.isDone();
+		release.countDown();
+
+		//verificação
+		assertThat(saved).isSameAs(waiting);
+		assertThat(waitedForBatch).isTrue();
+		assertThat(first.get(10, TimeUnit.SECONDS)).isSameAs(stuck);
+		Mockito.verify(loanService, Mockito.times(1)).saveAll(Mockito.anyList(), Mockito.any());
+		Mockito.verify(loanService, Mockito.never()).save(stuck);
+	}
+
+	@Test
+	@DisplayName("Depois de encerrado, deve gravar cada empréstimo direto, sem esperar por um lote.")
+	public void closedFallbackToSingleSaveTest() throws Exception {
+		//cenário
+		batcher = new LoanBatcher(loanService, true, THREADS, Duration.ofSeconds(5), Duration.ofSeconds(10));
+		batcher.start();
+		batcher.stop();
+		Loan loan = createLoan("Fulano");
+		Mockito.when(loanService.save(loan)).thenReturn(loan);
+
+		//execução
+		Loan saved = batcher.save(loan);
+
+		//verificação
+		assertThat(saved).isSameAs(loan);
+		Mockito.verify(loanService, Mockito.never()).saveAll(Mockito.anyList(), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Antes de iniciado pelo contexto, deve gravar cada empréstimo direto, sem criar a thread.")
+	public void notStartedFallbackToSingleSaveTest() {
+		//cenário
+		batcher = new LoanBatcher(loanService, true, THREADS, Duration.ofSeconds(5), Duration.ofSeconds(10));
+		Loan loan = createLoan("Fulano");
+		Mockito.when(loanService.save(loan)).thenReturn(loan);
+
+		//execução
+		Loan saved = batcher.save(loan);
+
+		//verificação
+		assertThat(saved).isSameAs(loan);
+		assertThat(batcher.isRunning()).isFalse();
+		Mockito.verify(loanService, Mockito.never()).saveAll(Mockito.anyList(), Mockito.any());
+	}
+
+	@Test
+	@DisplayName("Quando desabilitado, deve gravar cada empréstimo na sua própria transação.")
+	public void disabledTest() {
+		//cenário
+		batcher = new LoanBatcher(loanService, false, THREADS, Duration.ofMillis(2), Duration.ofSeconds(10));
+		batcher.start();
+		Loan loan = createLoan("Fulano");
+		Mockito.when(loanService.save(loan)).thenReturn(loan);
+
+		//execução
+		Loan saved = batcher.save(loan);
+
+		//verificação
+		assertThat(saved).isSameAs(loan);
+		Mockito.verify(loanService, Mockito.never()).saveAll(Mockito.anyList(), Mockito.any());
+	}
+
+	private List<Future<Loan>> submitLoans() {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Loan>> results = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			Loan loan = createLoan("Cliente " + i);
+			results.add(executor.submit(() -> {
+				start.await();
+				return batcher.save(loan);
+			}));
+		}
+		start.countDown();
+		return results;
+	}
+
+	private static Loan createLoan(String customer) {
+		Book book = Book.builder().id(1L).isbn("123").build();
+		return Loan.builder().book(book).customer(customer).loanDate(LocalDate.now()).build();
+	}
+}
@@ -0,0 +1,207 @@
+package br.com.library.services.cache;
+
+import br.com.library.api.dtos.BookDTO;
+import br.com.library.model.entity.Book;
+import br.com.library.services.events.BookChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookReadCoalescerTest {
+
+	static final int THREADS = 8;
+
+	BookVersionCache versions = new BookVersionCache(100);
+	BookReadCoalescer coalescer = new BookReadCoalescer(versions, true);
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+	@BeforeEach
+	public void setUp() {
+		coalescer.bindTo(registry);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Deve ir ao banco uma única vez para leituras simultâneas do mesmo livro, entregando cópias a quem esperou.")
+	public void coalesceConcurrentGetByIdTest() throws Exception {
+		//cenário
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		Book book = Book.builder().id(1L).title("As Aventuras").author("Fulano").isbn("123").version(0L).build();
+		List<Future<Optional<Book>>> results = new ArrayList<>();
+
+		//execução
+		for (int i = 0; i < THREADS; i++) {
+			results.add(executor.submit(() -> coalescer.getById(1L, () -> {
+				loads.incrementAndGet();
+				await(release);
+				return Optional.of(book);
+			})));
+		}
+		awaitDeduplicated(THREADS - 1);
+		release.countDown();
+		List<Book> books = new ArrayList<>();
+		for (Future<Optional<Book>> result : results) {
+			books.add(result.get(10, TimeUnit.SECONDS).orElse(null));
+		}
+
+		//verificação
+		assertThat(loads).hasValue(1);
+		assertThat(books).containsOnly(book);
+		assertThat(books.stream().filter(found -> found == book)).hasSize(1);
+		assertThat(registry.get(BookReadCoalescer.METRIC).tag("operation", "getById").functionCounter().count())
+				.isEqualTo(THREADS - 1);
+		assertThat(registry.get(BookReadCoalescer.EXECUTIONS_METRIC).tag("operation", "getById").functionCounter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve repassar a exceção a todas as chamadas agrupadas e executar de novo na chamada seguinte.")
+	public void coalesceFailureTest() throws Exception {
+		//cenário
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<Optional<Book>>> results = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			results.add(executor.submit(() -> coalescer.getByIsbn("123", () -> {
+				await(release);
+				throw new IllegalStateException("banco indisponível");
+			})));
+		}
+		awaitDeduplicated(THREADS - 1);
+
+		//execução
+		release.countDown();
+		int failures = 0;
+		for (Future<Optional<Book>> result : results) {
+			try {
+				result.get(10, TimeUnit.SECONDS);
+			} catch (ExecutionException exception) {
+				assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class).hasMessage("banco indisponível");
+				failures++;
+			}
+		}
+		Optional<Book> retry = coalescer.getByIsbn("123", () -> Optional.of(Book.builder().isbn("123").build()));
+
+		//verificação
+		assertThat(failures).isEqualTo(THREADS);
+		assertThat(retry).isPresent();
+	}
+
+	@Test
+	@DisplayName("Não deve agrupar uma busca feita depois de uma escrita com outra iniciada antes dela.")
+	public void findDtosKeyedByCatalogVersionTest() throws Exception {
+		//cenário
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		Book filter = new Book();
+		PageRequest pageRequest = PageRequest.of(0, 10);
+		Future<Page<BookDTO>> before = executor.submit(() -> coalescer.findDtos(filter, pageRequest, () -> {
+			loads.incrementAndGet();
+			await(release);
+			return Page.empty(pageRequest);
+		}));
+		awaitExecutions("findDtos", 1);
+
+		//execução
+		versions.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.SAVED,
+				Collections.singletonList(Book.builder().id(1L).version(0L).build())));
+		Page<BookDTO> after = coalescer.findDtos(filter, pageRequest, () -> {
+			loads.incrementAndGet();
+			return Page.empty(pageRequest);
+		});
+		release.countDown();
+		before.get(10, TimeUnit.SECONDS);
+
+		//verificação
+		assertThat(after).isEmpty();
+		assertThat(loads).hasValue(2);
+		assertThat(registry.get(BookReadCoalescer.METRIC).tag("operation", "findDtos").functionCounter().count()).isZero();
+	}
+
+	@Test
+	@DisplayName("Não deve entregar a quem lê um livro depois de uma escrita a leitura iniciada antes dela.")
+	public void getByIdKeyedByCatalogVersionTest() throws Exception {
+		//cenário
+		CountDownLatch release = new CountDownLatch(1);
+		Future<Optional<Book>> before = executor.submit(() -> coalescer.getById(1L, () -> {
+			await(release);
+			return Optional.of(Book.builder().id(1L).version(0L).build());
+		}));
+		awaitExecutions("getById", 1);
+
+		//execução
+		versions.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.UPDATED,
+				Collections.singletonList(Book.builder().id(1L).version(1L).build())));
+		Optional<Book> after = coalescer.getById(1L, () -> Optional.of(Book.builder().id(1L).version(1L).build()));
+		release.countDown();
+
+		//verificação
+		assertThat(after.map(Book::getVersion)).contains(1L);
+		assertThat(before.get(10, TimeUnit.SECONDS).map(Book::getVersion)).contains(0L);
+		assertThat(registry.get(BookReadCoalescer.METRIC).tag("operation", "getById").functionCounter().count()).isZero();
+	}
+
+	@Test
+	@DisplayName("Quando desabilitado, deve executar o loader em toda chamada, sem esperar por outra com a mesma chave.")
+	public void disabledTest() {
+		//cenário
+		BookReadCoalescer disabled = new BookReadCoalescer(versions, false);
+		AtomicInteger loads = new AtomicInteger();
+
+		//execução
+		disabled.getById(1L, () -> disabled.getById(1L, () -> {
+			loads.incrementAndGet();
+			return Optional.empty();
+		}));
+
+		//verificação
+		assertThat(loads).hasValue(1);
+	}
+
+	private void awaitDeduplicated(long expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (registry.find(BookReadCoalescer.METRIC).functionCounters().stream().mapToDouble(counter -> counter.count()).sum() < expected
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	private void awaitExecutions(String operation, long expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (registry.get(BookReadCoalescer.EXECUTIONS_METRIC).tag("operation", operation).functionCounter().count() < expected
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package br.com.library.services.cache;
+
+import br.com.library.model.entity.Book;
+import br.com.library.services.events.BookChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookVersionCacheTest {
+
+	BookVersionCache cache = new BookVersionCache(100);
+
+	@Test
+	@DisplayName("Não deve voltar para uma versão anterior do livro.")
+	public void versionOnlyAdvancesTest() {
+		cache.put(1L, 3L);
+		cache.put(1L, 2L);
+
+		assertThat(cache.get(1L)).contains(3L);
+	}
+
+	@Test
+	@DisplayName("Deve esquecer a versão de um livro excluído, mesmo que uma leitura antiga chegue depois.")
+	public void deletedBookTest() {
+		Book book = Book.builder().id(1L).version(3L).build();
+		cache.put(1L, 3L);
+
+		cache.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.DELETED, Collections.singletonList(book)));
+		cache.put(1L, 3L);
+
+		assertThat(cache.get(1L)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Deve mudar a versão do acervo a cada alteração publicada.")
+	public void catalogVersionTest() {
+		String before = cache.catalogVersion();
+		Book book = Book.builder().id(1L).version(0L).build();
+
+		cache.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.SAVED, Collections.singletonList(book)));
+
+		assertThat(cache.catalogVersion()).isNotEqualTo(before);
+		assertThat(cache.get(1L)).contains(0L);
+	}
+}
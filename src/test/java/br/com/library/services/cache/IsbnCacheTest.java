@@ -0,0 +1,77 @@
+package br.com.library.services.cache;
+
+import br.com.library.model.entity.Book;
+import br.com.library.services.events.BookChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IsbnCacheTest {
+
+	IsbnCache cache = new IsbnCache(100, Duration.ofHours(1), Duration.ofSeconds(30));
+
+	@Test
+	@DisplayName("Deve carregar o id apenas no primeiro acesso.")
+	public void readThroughTest() {
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.getId("123", isbn -> {
+			loads.incrementAndGet();
+			return Optional.of(1L);
+		});
+		Optional<Long> id = cache.getId("123", isbn -> {
+			loads.incrementAndGet();
+			return Optional.of(2L);
+		});
+
+		assertThat(id).contains(1L);
+		assertThat(loads.get()).isEqualTo(1);
+		assertThat(cache.stats().hitCount()).isEqualTo(1);
+		assertThat(cache.stats().missCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve armazenar em cache isbns inexistentes.")
+	public void negativeCachingTest() {
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.getId("123", isbn -> {
+			loads.incrementAndGet();
+			return Optional.empty();
+		});
+		Optional<Long> id = cache.getId("123", isbn -> {
+			loads.incrementAndGet();
+			return Optional.of(1L);
+		});
+
+		assertThat(id).isEmpty();
+		assertThat(loads.get()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve guardar o isbn dos livros cadastrados quando a gravação for confirmada.")
+	public void savedBooksEventTest() {
+		Book book = Book.builder().id(7L).isbn("123").build();
+
+		cache.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.SAVED, Collections.singletonList(book)));
+
+		assertThat(cache.getId("123", isbn -> Optional.empty())).contains(7L);
+	}
+
+	@Test
+	@DisplayName("Deve invalidar a entrada pelo id do livro.")
+	public void invalidateIdTest() {
+		cache.put("123", 1L);
+
+		cache.invalidateId(1L);
+
+		assertThat(cache.getId("123", isbn -> Optional.empty())).isEmpty();
+	}
+
+}
@@ -0,0 +1,82 @@
+package br.com.library.services.search;
+
+import br.com.library.model.entity.Book;
+import br.com.library.services.events.BookChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookNgramIndexTest {
+
+	BookNgramIndex index;
+
+	@BeforeEach
+	public void setUp() {
+		index = new BookNgramIndex(true, 2);
+		index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.SAVED, Arrays.asList(
+				Book.builder().id(1L).title("As Aventuras de Pi").author("Yann Martel").build(),
+				Book.builder().id(2L).title("Memórias Póstumas").author("Machado de Assis").build(),
+				Book.builder().id(3L).title("Dom Casmurro").author("Machado de Assis").build())));
+	}
+
+	@Test
+	@DisplayName("Deve retornar os candidatos que contêm todos os trigramas do termo.")
+	public void candidatesTest() {
+		assertThat(index.candidates("CASMU", null)).containsExactly(3L);
+		assertThat(index.candidates(null, "chado")).containsExactly(2L, 3L);
+		assertThat(index.candidates("rias", "assis")).containsExactly(2L);
+		assertThat(index.candidates("xyz", null)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Não deve restringir a busca para termos curtos ou com candidatos demais.")
+	public void unusableFilterTest() {
+		assertThat(index.candidates("as", null)).isNull();
+		assertThat(index.candidates(null, null)).isNull();
+		assertThat(index.candidates("a", "a")).isNull();
+
+		BookNgramIndex limited = new BookNgramIndex(true, 1);
+		limited.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.SAVED, Arrays.asList(
+				Book.builder().id(2L).title("Memórias Póstumas").author("Machado de Assis").build(),
+				Book.builder().id(3L).title("Dom Casmurro").author("Machado de Assis").build())));
+		assertThat(limited.candidates(null, "machado")).isNull();
+		assertThat(limited.candidates("casmurro", "machado")).containsExactly(3L);
+	}
+
+	@Test
+	@DisplayName("Deve refletir atualizações e remoções.")
+	public void updateAndDeleteTest() {
+		index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.UPDATED, Collections.singletonList(
+				Book.builder().id(3L).title("Quincas Borba").author("Machado de Assis").build())));
+		index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.DELETED, Collections.singletonList(
+				Book.builder().id(2L).build())));
+
+		assertThat(index.candidates("casmurro", null)).isEmpty();
+		assertThat(index.candidates("borba", "machado")).containsExactly(3L);
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Deve manter o índice consistente com muitos livros.")
+	public void manyBooksTest() {
+		BookNgramIndex large = new BookNgramIndex(true, 100_000);
+		large.rebuild(consumer -> {
+			for (long id = 1; id <= 20_000; id++) {
+				consumer.accept(Book.builder().id(id).title("Livro " + id).author("Autor").build());
+			}
+		});
+		large.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.DELETED, Collections.singletonList(
+				Book.builder().id(12345L).build())));
+
+		assertThat(large.candidates("livro 12345", null)).isEmpty();
+		assertThat(large.candidates("livro 1234", null)).containsExactly(1234L, 12340L, 12341L, 12342L, 12343L,
+				12344L, 12346L, 12347L, 12348L, 12349L);
+		assertThat(large.size()).isEqualTo(19_999);
+	}
+
+}
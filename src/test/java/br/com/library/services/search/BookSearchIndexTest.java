@@ -0,0 +1,116 @@
+package br.com.library.services.search;
+
+import br.com.library.model.entity.Book;
+import br.com.library.services.events.BookChangedEvent;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookSearchIndexTest {
+
+	BookSearchIndex index;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		index = new BookSearchIndex("", Duration.ofMinutes(1));
+		index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.SAVED, Arrays.asList(
+				Book.builder().id(1L).title("As Aventuras de Pi").author("Yann Martel").build(),
+				Book.builder().id(2L).title("Memórias Póstumas").author("Machado de Assis").build(),
+				Book.builder().id(3L).title("Dom Casmurro").author("Machado de Assis").build())));
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		index.destroy();
+	}
+
+	@Test
+	@DisplayName("Deve buscar por prefixo ignorando acentos e caixa.")
+	public void prefixSearchTest() throws IOException {
+		BookSearchResult result = index.search("MEMORI", 0, 10);
+
+		assertThat(result.getIds()).containsExactly(2L);
+		assertThat(result.getTotalHits()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Deve exigir todos os termos e ordenar por relevância.")
+	public void rankedSearchTest() throws IOException {
+		index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.SAVED, Collections.singletonList(
+				Book.builder().id(4L).title("Machado de Assis: uma biografia").author("Fulano").build())));
+
+		BookSearchResult result = index.search("machado assis", 0, 10);
+
+		assertThat(result.getIds()).hasSize(3).startsWith(4L);
+	}
+
+	@Test
+	@DisplayName("Deve refletir atualizações e remoções.")
+	public void updateAndDeleteTest() throws IOException {
+		index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.UPDATED, Collections.singletonList(
+				Book.builder().id(3L).title("Quincas Borba").author("Machado de Assis").build())));
+		index.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.DELETED, Collections.singletonList(
+				Book.builder().id(2L).build())));
+
+		assertThat(index.search("casmurro", 0, 10).getIds()).isEmpty();
+		assertThat(index.search("machado", 0, 10).getIds()).containsExactly(3L);
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Deve marcar o índice em disco como íntegro apenas no commit do encerramento.")
+	public void cleanShutdownMarkerTest(@TempDir Path dir) throws IOException {
+		//cenário
+		BookSearchIndex onDisk = new BookSearchIndex(dir.toString(), Duration.ofMinutes(1));
+		onDisk.onBookChanged(new BookChangedEvent(BookChangedEvent.Type.SAVED, Collections.singletonList(
+				Book.builder().id(1L).title("Dom Casmurro").author("Machado de Assis").build())));
+
+		//execução
+		String whileOpen = lastCommitData(dir).get(BookSearchIndex.CLEAN);
+		onDisk.destroy();
+		String afterShutdown = lastCommitData(dir).get(BookSearchIndex.CLEAN);
+		BookSearchIndex reopened = new BookSearchIndex(dir.toString(), Duration.ofMinutes(1));
+
+		//verificação
+		try {
+			assertThat(onDisk.isClosedCleanly()).isFalse();
+			assertThat(whileOpen).isEqualTo("false");
+			assertThat(afterShutdown).isEqualTo("true");
+			assertThat(reopened.isClosedCleanly()).isTrue();
+			assertThat(reopened.size()).isEqualTo(1);
+			assertThat(lastCommitData(dir).get(BookSearchIndex.CLEAN)).isEqualTo("false");
+		} finally {
+			reopened.destroy();
+		}
+	}
+
+	@Test
+	@DisplayName("Deve paginar os resultados.")
+	public void pagedSearchTest() throws IOException {
+		BookSearchResult result = index.search("machado", 1, 1);
+
+		assertThat(result.getIds()).hasSize(1);
+		assertThat(result.getTotalHits()).isEqualTo(2);
+	}
+
+	private static Map<String, String> lastCommitData(Path dir) throws IOException {
+		try (Directory directory = FSDirectory.open(dir)) {
+			return SegmentInfos.readLatestCommit(directory).getUserData();
+		}
+	}
+
+}